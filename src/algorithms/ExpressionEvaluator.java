@@ -3,6 +3,7 @@ package algorithms;
 import java.util.Locale;
 import java.util.Scanner;
 
+import datastructures.DoubleStack;
 import datastructures.Stack;
 
 /**
@@ -77,7 +78,7 @@ public class ExpressionEvaluator {
 		String expression = toPostfix(rep,locale);
 		Scanner sc = new Scanner(expression);
 		sc.useLocale(locale);
-		Stack<Double> operands = new Stack<Double>();
+		DoubleStack operands = new DoubleStack();
 		while (sc.hasNext()) {
 			if (sc.hasNextDouble()) {
 				operands.push(sc.nextDouble());
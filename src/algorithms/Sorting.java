@@ -12,7 +12,7 @@ package algorithms;
 import java.util.Comparator;
 
 import datastructures.BinaryHeap;
-import datastructures.Stack;
+import datastructures.IntPairStack;
 import util.FunctionObjects;
 import util.Pair;
 
@@ -226,11 +226,12 @@ public class Sorting {
 	{
 		Pair<Integer,Integer> ndx;
 		long ops = 0;
-		Stack<Pair<Integer,Integer>> callStack = new Stack<>();
-		callStack.push(new Pair<>(0,array.length-1));
+		// the ranges are packed in longs, so no Pair is created for them.
+		IntPairStack callStack = new IntPairStack();
+		callStack.push(0,array.length-1);
 		while (!callStack.isEmpty()) {
-			Pair<Integer,Integer> p = callStack.pop();
-			int s = p.first, e = p.second;
+			long p = callStack.pop();
+			int s = IntPairStack.first(p), e = IntPairStack.second(p);
 			if (s >= e) continue;
 			int med = (s + e)/2;
 			int pivot = Partition.median_of_three(array,s,med,e,cmp);
@@ -239,11 +240,11 @@ public class Sorting {
 			int a = ndx.first - s;
 			int b = e - ndx.second;
 			if (a < b) {
-				callStack.push(new Pair<>(s,ndx.first-1));
-				callStack.push(new Pair<>(ndx.second+1,e));
+				callStack.push(s,ndx.first-1);
+				callStack.push(ndx.second+1,e);
 			} else {
-				callStack.push(new Pair<>(ndx.second+1,e));
-				callStack.push(new Pair<>(s,ndx.first-1));
+				callStack.push(ndx.second+1,e);
+				callStack.push(s,ndx.first-1);
 			}
 		}
 		return ops;
@@ -0,0 +1,59 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import datastructures.Vector;
+
+/**
+ * Measures the time per append on a Vector of growing sizes, with the
+ * default geometric growth, and with growth capped at 1024 elements per
+ * step, the former linear policy. With geometric growth the time per
+ * append stays constant; with the cap it grows with the size, so the
+ * capped policy is only run up to a smaller size. Sizes, in millions of
+ * elements, can be given as arguments.
+ */
+public class AppendBenchmark {
+
+	private static final int LINEAR_LIMIT = 4000000;
+
+	public static void main(String...args) {
+		int[] sizes = { 1, 2, 4, 8, 16, 32 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// warm up both code paths.
+		append(100000, 0);
+		append(100000, 1024);
+		System.out.println("elements\tgeometric (ns/append)\tlinear (ns/append)");
+		for (int size : sizes) {
+			int n = size * 1000000;
+			double geometric = append(n, 0);
+			String linear = n <= LINEAR_LIMIT ?
+					String.format("%.1f", append(n, 1024)) : "-";
+			System.out.printf("%d\t%.1f\t\t\t%s%n", n, geometric, linear);
+		}
+	}
+
+	// append n elements to a new vector, returning the time per append.
+	private static double append(int n, int maxStep) {
+		Integer element = 42;
+		Vector<Integer> vector = new Vector<>();
+		vector.growthPolicy(2, maxStep);
+		long start = System.nanoTime();
+		for (int i = 0; i < n; i++)
+			vector.append(element);
+		double elapsed = System.nanoTime() - start;
+		if (vector.size() != n)
+			throw new IllegalStateException();
+		return elapsed / n;
+	}
+}
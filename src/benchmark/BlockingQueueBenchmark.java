@@ -0,0 +1,120 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import datastructures.BlockingQueue;
+
+/**
+ * Measures the time to hand 1 million messages from one producer to many
+ * waiting consumers, through a BlockingQueue and through a
+ * LinkedBlockingQueue. The consumers are 100 thousand virtual threads,
+ * when the runtime has them (Java 21 or later), found by reflection so
+ * this code still builds for Java 8. Otherwise the consumers are 1000
+ * platform threads. The number of consumers can be given as an argument.
+ */
+public class BlockingQueueBenchmark {
+
+	private interface Channel {
+		void put(Integer value) throws InterruptedException;
+		Integer take() throws InterruptedException;
+	}
+
+	private static final int MESSAGES = 1000000;
+	private static final Integer END = -1;
+
+	private static Method startVirtualThread;
+
+	public static void main(String...args) throws Exception {
+		try {
+			startVirtualThread =
+					Thread.class.getMethod("startVirtualThread", Runnable.class);
+		} catch (NoSuchMethodException e) {
+			startVirtualThread = null;
+		}
+		int consumers = startVirtualThread != null ? 100000 : 1000;
+		if (args.length > 0)
+			consumers = Integer.parseInt(args[0]);
+		System.out.println("consumers: " + consumers + " "
+		                   + (startVirtualThread != null ? "virtual" : "platform")
+		                   + " threads");
+
+		System.out.println("round\tBlockingQueue (ms)\tLinkedBlockingQueue (ms)");
+		for (int round = 1; round <= 3; round++) {
+			final BlockingQueue<Integer> parking = new BlockingQueue<>();
+			Channel a = new Channel() {
+				@Override
+				public void put(Integer value) {
+					parking.put(value);
+				}
+				@Override
+				public Integer take() throws InterruptedException {
+					return parking.take();
+				}
+			};
+			final LinkedBlockingQueue<Integer> linked = new LinkedBlockingQueue<>();
+			Channel b = new Channel() {
+				@Override
+				public void put(Integer value) throws InterruptedException {
+					linked.put(value);
+				}
+				@Override
+				public Integer take() throws InterruptedException {
+					return linked.take();
+				}
+			};
+			System.out.printf("%d\t%.1f\t\t\t%.1f%n", round,
+			                  run(a, consumers), run(b, consumers));
+		}
+	}
+
+	private static void start(Runnable task) throws Exception {
+		if (startVirtualThread != null)
+			startVirtualThread.invoke(null, task);
+		else
+			new Thread(task).start();
+	}
+
+	// start the consumers, waiting on an empty queue, and return the time
+	// to hand the messages, and an end marker to each consumer.
+	private static double run(final Channel channel, int consumers)
+			throws Exception
+	{
+		final CountDownLatch started = new CountDownLatch(consumers);
+		final CountDownLatch done = new CountDownLatch(consumers);
+		Runnable consumer = new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					while (channel.take() != END)
+						;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			}
+		};
+		for (int c = 0; c < consumers; c++)
+			start(consumer);
+		started.await();
+		Integer message = 42;
+		long begin = System.nanoTime();
+		for (int i = 0; i < MESSAGES; i++)
+			channel.put(message);
+		for (int c = 0; c < consumers; c++)
+			channel.put(END);
+		done.await();
+		return (System.nanoTime() - begin) / 1e6;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import datastructures.ConcurrentCuckooHashtable;
+import datastructures.Hashtable;
+
+/**
+ * Measures the read throughput of ConcurrentCuckooHashtable, from one
+ * thread up to the number of available processors, against a Hashtable
+ * protected by a global lock.
+ */
+public class ConcurrentHashtableBenchmark {
+
+	private interface Reader {
+		Integer get(Integer key);
+	}
+
+	private static final int KEYS = 1 << 20;
+	private static final long DURATION = 2000;
+
+	public static void main(String...args) throws Exception {
+		final ConcurrentCuckooHashtable<Integer, Integer> concurrent =
+				new ConcurrentCuckooHashtable<>();
+		final Hashtable<Integer, Integer> locked = new Hashtable<>(2, 4);
+		final Integer[] keys = new Integer[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = i;
+			concurrent.put(keys[i], i);
+			locked.put(keys[i], i);
+		}
+
+		Reader optimistic = new Reader() {
+			@Override
+			public Integer get(Integer key) {
+				return concurrent.get(key);
+			}
+		};
+		Reader synchronizedReader = new Reader() {
+			@Override
+			public Integer get(Integer key) {
+				synchronized (locked) {
+					return locked.get(key);
+				}
+			}
+		};
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println("threads\tconcurrent (Mops/s)\tlocked (Mops/s)");
+		for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+			double c = run(optimistic, keys, threads);
+			double l = run(synchronizedReader, keys, threads);
+			System.out.printf("%d\t%.2f\t\t\t%.2f%n", threads, c, l);
+			if (threads == cores)
+				break;
+		}
+	}
+
+	// run the readers for a fixed time, returning millions of reads/s.
+	private static double run(final Reader reader, final Integer[] keys,
+	                          int threads) throws InterruptedException
+	{
+		final long[] counts = new long[threads];
+		final long end = System.currentTimeMillis() + DURATION;
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long reads = 0;
+					int i = id * 7919;
+					while (System.currentTimeMillis() < end) {
+						for (int n = 0; n < 1024; n++) {
+							i = (i + 40503) & (KEYS - 1);
+							reader.get(keys[i]);
+						}
+						reads += 1024;
+					}
+					counts[id] = reads;
+				}
+			});
+			workers[t].start();
+		}
+		long total = 0;
+		for (int t = 0; t < threads; t++) {
+			workers[t].join();
+			total += counts[t];
+		}
+		return total / (DURATION * 1000.0);
+	}
+}
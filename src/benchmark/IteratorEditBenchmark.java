@@ -0,0 +1,77 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import datastructures.GapVector;
+import datastructures.Vector;
+import interfaces.Iterator;
+
+/**
+ * Measures a pass of edits driven by an iterator, that removes every
+ * third element and inserts a new element before every other third, on a
+ * Vector and on a GapVector. Each edit of the Vector shifts the tail of
+ * the array, so the pass is quadratic and is only run up to a smaller
+ * size; the GapVector only moves its gap to the iterator. Sizes, in
+ * thousands of elements, can be given as arguments.
+ */
+public class IteratorEditBenchmark {
+
+	private static final int VECTOR_LIMIT = 200000;
+
+	public static void main(String...args) {
+		int[] sizes = { 50, 100, 200, 1000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// warm up both code paths.
+		for (int i = 0; i < 5; i++) {
+			edit(fill(new Vector<Integer>(), 10000));
+			edit(fill(new GapVector<Integer>(), 10000));
+		}
+		System.out.println("elements\tVector (ms)\tGapVector (ms)");
+		for (int size : sizes) {
+			int n = size * 1000;
+			String vector = n <= VECTOR_LIMIT ?
+					String.format("%.1f", edit(fill(new Vector<Integer>(), n)))
+					: "-";
+			double gap = edit(fill(new GapVector<Integer>(), n));
+			System.out.printf("%d\t\t%s\t\t%.1f%n", n, vector, gap);
+		}
+	}
+
+	private static Vector<Integer> fill(Vector<Integer> vector, int n) {
+		for (int i = 0; i < n; i++)
+			vector.append(i);
+		return vector;
+	}
+
+	private static GapVector<Integer> fill(GapVector<Integer> vector, int n) {
+		for (int i = 0; i < n; i++)
+			vector.append(i);
+		return vector;
+	}
+
+	// run the edits through the iterator, returning the elapsed time.
+	private static double edit(interfaces.Iterable<Integer> container) {
+		Integer element = -1;
+		long start = System.nanoTime();
+		Iterator<Integer> iter = container.iterator();
+		while (iter.hasNext()) {
+			int value = iter.next();
+			if (value % 3 == 0)
+				iter.remove();
+			else if (value % 3 == 1)
+				iter.insert(element);
+		}
+		return (System.nanoTime() - start) / 1e6;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import datastructures.LinkedList;
+
+/**
+ * Compares LinkedList.sort, a natural merge sort that relinks the nodes,
+ * with copying the elements of the list to an array, sorting it with
+ * Arrays.sort, and building a new list, on random and on already sorted
+ * elements. The number of elements, in millions, can be given as an
+ * argument.
+ */
+public class LinkedListSortBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	private static final Comparator<Integer> CMP = new Comparator<Integer>() {
+		@Override
+		public int compare(Integer o1, Integer o2) {
+			return o1.compareTo(o2);
+		}
+	};
+
+	public static void main(String...args) {
+		int n = (args.length > 0 ? Integer.parseInt(args[0]) : 1) * 1000000;
+		Random random = new Random(42);
+		Integer[] values = new Integer[n];
+		for (int i = 0; i < n; i++)
+			values[i] = random.nextInt();
+		Integer[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		System.out.println("input\t\tmerge sort (ms)\tarray sort (ms)");
+		for (int r = 0; r < ROUNDS; r++) {
+			System.out.printf("random\t\t%.1f\t\t%.1f%n",
+			                  mergeSort(values), arraySort(values));
+			System.out.printf("sorted\t\t%.1f\t\t%.1f%n",
+			                  mergeSort(sorted), arraySort(sorted));
+		}
+	}
+
+	private static LinkedList<Integer> build(Integer[] values) {
+		LinkedList<Integer> list = new LinkedList<>();
+		for (Integer v : values)
+			list.append(v);
+		return list;
+	}
+
+	private static double mergeSort(Integer[] values) {
+		LinkedList<Integer> list = build(values);
+		long start = System.nanoTime();
+		list.sort(CMP);
+		return (System.nanoTime() - start) / 1e6;
+	}
+
+	private static double arraySort(Integer[] values) {
+		LinkedList<Integer> list = build(values);
+		long start = System.nanoTime();
+		Integer[] array = new Integer[values.length];
+		int i = 0;
+		for (Integer v : list)
+			array[i++] = v;
+		Arrays.sort(array, CMP);
+		list = build(array);
+		return (System.nanoTime() - start) / 1e6;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import datastructures.LinkedList;
+import datastructures.UnrolledLinkedList;
+import datastructures.Vector;
+
+/**
+ * Measures the time per element of a full iteration over a Vector, a
+ * LinkedList and an UnrolledLinkedList with nodes of 16, 32 and 64
+ * elements. The lists are built with the same elements, and the
+ * iteration only compares references, so the time is the cost of the
+ * traversal. The number of elements, in millions, can be given as an
+ * argument.
+ */
+public class ListIterationBenchmark {
+
+	private static final int ROUNDS = 10;
+
+	public static void main(String...args) {
+		int n = (args.length > 0 ? Integer.parseInt(args[0]) : 4) * 1000000;
+		Integer[] elements = new Integer[n];
+		for (int i = 0; i < n; i++)
+			elements[i] = i;
+		Integer marker = elements[n / 2];
+
+		Vector<Integer> vector = new Vector<>(n);
+		LinkedList<Integer> linked = new LinkedList<>();
+		for (Integer e : elements) {
+			vector.append(e);
+			linked.append(e);
+		}
+		System.out.printf("Vector\t\t\t%.2f ns/element%n",
+		                  iterate(vector, marker, n));
+		System.out.printf("LinkedList\t\t%.2f ns/element%n",
+		                  iterate(linked, marker, n));
+		linked = null;
+		for (int capacity : new int[] { 16, 32, 64 }) {
+			UnrolledLinkedList<Integer> unrolled =
+					new UnrolledLinkedList<>(capacity);
+			for (Integer e : elements)
+				unrolled.append(e);
+			System.out.printf("UnrolledLinkedList(%d)\t%.2f ns/element%n",
+			                  capacity, iterate(unrolled, marker, n));
+		}
+	}
+
+	// the best time per element of a few full iterations.
+	private static double iterate(Iterable<Integer> list, Integer marker,
+	                              int n) {
+		double best = Double.MAX_VALUE;
+		for (int r = 0; r < ROUNDS; r++) {
+			int found = 0;
+			long start = System.nanoTime();
+			for (Integer e : list)
+				if (e == marker)
+					found++;
+			best = Math.min(best, (double)(System.nanoTime() - start) / n);
+			if (found != 1)
+				throw new IllegalStateException();
+		}
+		return best;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.util.Random;
+
+import datastructures.Hashtable;
+import datastructures.IntIntRobinHoodMap;
+import datastructures.LongLongRobinHoodMap;
+import datastructures.RobinHoodHash;
+
+/**
+ * Compares getAll() against a loop of get() calls, on batches of random
+ * keys (half of them not stored), for tables of growing sizes. The sizes,
+ * in millions of entries, can be given as arguments; large sizes need a
+ * large heap (-Xmx), mostly for the tables of boxed keys.
+ */
+public class MultiGetBenchmark {
+
+	private interface Lookup {
+		void scalar(int batch);
+		void batched(int batch);
+	}
+
+	private static final int BATCH = 4096;
+	private static final int BATCHES = 256;
+	private static final int ROUNDS = 5;
+
+	public static void main(String...args) throws Exception {
+		int[] sizes = { 1, 4, 16 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		System.out.println("entries\ttable\t\tscalar (ns/key)\tgetAll (ns/key)");
+		for (int size : sizes)
+			run(size * 1000000);
+	}
+
+	private static void run(final int entries) throws Exception {
+		final Random random = new Random(42);
+		final long[][] keys = new long[BATCHES][BATCH];
+		final int[][] intKeys = new int[BATCHES][BATCH];
+		final Long[][] boxed = new Long[BATCHES][BATCH];
+		for (int b = 0; b < BATCHES; b++) {
+			for (int i = 0; i < BATCH; i++) {
+				keys[b][i] = key(random.nextInt(2 * entries));
+				intKeys[b][i] = (int)keys[b][i];
+				boxed[b][i] = keys[b][i];
+			}
+		}
+		final Long[] boxedOut = new Long[BATCH];
+
+		final Hashtable<Long, Long> cuckoo = new Hashtable<>(2, 4);
+		for (int i = 0; i < entries; i++)
+			cuckoo.put(key(i), (long)i);
+		report(entries, "Hashtable", new Lookup() {
+			@Override
+			public void scalar(int batch) {
+				Long[] k = boxed[batch];
+				for (int i = 0; i < k.length; i++)
+					boxedOut[i] = cuckoo.get(k[i]);
+			}
+			@Override
+			public void batched(int batch) {
+				cuckoo.getAll(boxed[batch], boxedOut);
+			}
+		});
+
+		final RobinHoodHash<Long, Long> robin = new RobinHoodHash<>();
+		for (int i = 0; i < entries; i++)
+			robin.put(key(i), (long)i);
+		report(entries, "RobinHoodHash", new Lookup() {
+			@Override
+			public void scalar(int batch) {
+				Long[] k = boxed[batch];
+				for (int i = 0; i < k.length; i++)
+					boxedOut[i] = robin.get(k[i]);
+			}
+			@Override
+			public void batched(int batch) {
+				robin.getAll(boxed[batch], boxedOut);
+			}
+		});
+
+		final LongLongRobinHoodMap longs = new LongLongRobinHoodMap();
+		for (int i = 0; i < entries; i++)
+			longs.put(key(i), i);
+		final long[] longsOut = new long[BATCH];
+		report(entries, "LongLong", new Lookup() {
+			@Override
+			public void scalar(int batch) {
+				long[] k = keys[batch];
+				for (int i = 0; i < k.length; i++)
+					longsOut[i] = longs.get(k[i], -1);
+			}
+			@Override
+			public void batched(int batch) {
+				longs.getAll(keys[batch], longsOut, -1);
+			}
+		});
+
+		final IntIntRobinHoodMap ints = new IntIntRobinHoodMap();
+		for (int i = 0; i < entries; i++)
+			ints.put((int)key(i), i);
+		final int[] intsOut = new int[BATCH];
+		report(entries, "IntInt", new Lookup() {
+			@Override
+			public void scalar(int batch) {
+				int[] k = intKeys[batch];
+				for (int i = 0; i < k.length; i++)
+					intsOut[i] = ints.get(k[i], -1);
+			}
+			@Override
+			public void batched(int batch) {
+				ints.getAll(intKeys[batch], intsOut, -1);
+			}
+		});
+	}
+
+	// spread the keys, so they are not stored in order.
+	private static long key(int n) {
+		return n * 0x9E3779B97F4A7C15L;
+	}
+
+	private static void report(int entries, String name, Lookup lookup) {
+		double scalar = Double.MAX_VALUE, batched = Double.MAX_VALUE;
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			for (int b = 0; b < BATCHES; b++)
+				lookup.scalar(b);
+			scalar = Math.min(scalar, System.nanoTime() - start);
+			start = System.nanoTime();
+			for (int b = 0; b < BATCHES; b++)
+				lookup.batched(b);
+			batched = Math.min(batched, System.nanoTime() - start);
+		}
+		double lookups = (double)BATCHES * BATCH;
+		System.out.printf("%d\t%-14s\t%.1f\t\t%.1f%n", entries, name,
+		                  scalar / lookups, batched / lookups);
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.io.File;
+
+import datastructures.OffHeapRobinHoodHash;
+import datastructures.PersistentRobinHoodHash;
+import util.Serializers;
+
+/**
+ * Compares the time to have a large table ready at startup, by rebuilding
+ * it from scratch and by reopening a PersistentRobinHoodHash file. The
+ * time of the first lookups after reopening is reported apart, as they
+ * load the pages of the file. The number of keys can be given as the
+ * first argument.
+ */
+public class PersistentStartupBenchmark {
+
+	private static final int LOOKUPS = 10000;
+
+	public static void main(String...args) throws Exception {
+		int keys = args.length > 0 ? Integer.parseInt(args[0]) : 4000000;
+		File file = File.createTempFile("startup", ".table");
+		File journal = new File(file.getPath() + ".journal");
+		file.delete();
+
+		long start = System.nanoTime();
+		OffHeapRobinHoodHash<Long, Long> rebuilt =
+				new OffHeapRobinHoodHash<>(Serializers.LONG, Serializers.LONG);
+		for (long i = 0; i < keys; i++)
+			rebuilt.put(i * 0x9E3779B1L, i);
+		double rebuild = (System.nanoTime() - start) / 1e6;
+		rebuilt.free();
+
+		start = System.nanoTime();
+		PersistentRobinHoodHash<Long, Long> hash =
+				new PersistentRobinHoodHash<>(file, Serializers.LONG,
+				                              Serializers.LONG);
+		for (long i = 0; i < keys; i++)
+			hash.put(i * 0x9E3779B1L, i);
+		hash.close();
+		double create = (System.nanoTime() - start) / 1e6;
+
+		start = System.nanoTime();
+		hash = new PersistentRobinHoodHash<>(file, Serializers.LONG,
+		                                     Serializers.LONG);
+		double reopen = (System.nanoTime() - start) / 1e6;
+		start = System.nanoTime();
+		long sum = 0;
+		for (long i = 0, k = 0; i < LOOKUPS; i++) {
+			k = (k + 1000003) % keys;
+			sum += hash.get(k * 0x9E3779B1L);
+		}
+		double lookups = (System.nanoTime() - start) / 1e6;
+		hash.close();
+
+		System.out.println("keys: " + keys + "\tfile: "
+		                   + file.length() / (1 << 20) + "MB");
+		System.out.printf("rebuild from scratch:\t%.1f ms%n", rebuild);
+		System.out.printf("create file (once):\t%.1f ms%n", create);
+		System.out.printf("reopen file:\t\t%.3f ms%n", reopen);
+		System.out.printf("first %d lookups:\t%.1f ms (%d)%n",
+		                  LOOKUPS, lookups, sum);
+		file.delete();
+		journal.delete();
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.util.Arrays;
+
+import datastructures.MpscArrayQueue;
+import datastructures.Queue;
+import datastructures.SpscArrayQueue;
+
+/**
+ * Measures the throughput, and the latency of sampled messages, of
+ * handing messages from 1, 2, 4 and 8 producer threads to one consumer
+ * thread, through a SpscArrayQueue (one producer only), a MpscArrayQueue,
+ * and a Queue protected by a lock, bounded to the same capacity. A
+ * thread that finds the queue full, or empty, yields. Each run hands
+ * 4 million messages.
+ */
+public class QueueHandoffBenchmark {
+
+	private interface Channel {
+		boolean offer(Object value);
+		Object poll();
+	}
+
+	private static final int CAPACITY = 1024;
+	private static final int MESSAGES = 4000000;
+	private static final int SAMPLE = 256;
+	private static final Object MESSAGE = new Object();
+
+	public static void main(String...args) throws Exception {
+		// warm up all code paths.
+		for (int i = 0; i < 3; i++) {
+			run(spsc(), 1);
+			run(mpsc(), 2);
+			run(locked(), 2);
+		}
+		System.out.println("producers\tqueue\tMops/s\tmean (us)\tp99 (us)");
+		for (int producers : new int[] { 1, 2, 4, 8 }) {
+			if (producers == 1)
+				report(producers, "spsc", run(spsc(), producers));
+			report(producers, "mpsc", run(mpsc(), producers));
+			report(producers, "locked", run(locked(), producers));
+		}
+	}
+
+	private static void report(int producers, String name, double[] result) {
+		System.out.printf("%d\t\t%s\t%.2f\t%.1f\t\t%.1f%n",
+		                  producers, name, result[0], result[1], result[2]);
+	}
+
+	private static Channel spsc() {
+		final SpscArrayQueue<Object> queue = new SpscArrayQueue<>(CAPACITY);
+		return new Channel() {
+			@Override
+			public boolean offer(Object value) {
+				return queue.offer(value);
+			}
+			@Override
+			public Object poll() {
+				return queue.poll();
+			}
+		};
+	}
+
+	private static Channel mpsc() {
+		final MpscArrayQueue<Object> queue = new MpscArrayQueue<>(CAPACITY);
+		return new Channel() {
+			@Override
+			public boolean offer(Object value) {
+				return queue.offer(value);
+			}
+			@Override
+			public Object poll() {
+				return queue.poll();
+			}
+		};
+	}
+
+	private static Channel locked() {
+		final Queue<Object> queue = new Queue<>(CAPACITY);
+		return new Channel() {
+			@Override
+			public synchronized boolean offer(Object value) {
+				if (queue.size() == CAPACITY)
+					return false;
+				queue.push(value);
+				return true;
+			}
+			@Override
+			public synchronized Object poll() {
+				return queue.isEmpty() ? null : queue.pop();
+			}
+		};
+	}
+
+	/*
+	 * Hand the messages, returning the throughput in millions of messages
+	 * per second, and the mean and 99th percentile latency of the sampled
+	 * messages, that carry the time they were offered.
+	 */
+	private static double[] run(final Channel channel, int producers)
+			throws InterruptedException
+	{
+		final int perProducer = MESSAGES / producers;
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			threads[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < perProducer; i++) {
+						Object message = i % SAMPLE == 0 ?
+								new long[] { System.nanoTime() } : MESSAGE;
+						while (!channel.offer(message))
+							Thread.yield();
+					}
+				}
+			});
+		}
+		int total = perProducer * producers;
+		long[] latencies = new long[total / SAMPLE + producers];
+		int samples = 0;
+		long start = System.nanoTime();
+		for (Thread thread : threads)
+			thread.start();
+		for (int received = 0; received < total; ) {
+			Object message = channel.poll();
+			if (message == null) {
+				Thread.yield();
+				continue;
+			}
+			if (message != MESSAGE)
+				latencies[samples++] = System.nanoTime() - ((long[])message)[0];
+			received++;
+		}
+		double elapsed = System.nanoTime() - start;
+		for (Thread thread : threads)
+			thread.join();
+		Arrays.sort(latencies, 0, samples);
+		double mean = 0;
+		for (int i = 0; i < samples; i++)
+			mean += latencies[i];
+		mean /= samples;
+		return new double[] { total / elapsed * 1e3, mean / 1e3,
+		                      latencies[(int)(samples * 0.99)] / 1e3 };
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.util.Arrays;
+
+import datastructures.DuplicateKeyException;
+import datastructures.Hashtable;
+import datastructures.RobinHoodHash;
+
+/**
+ * Measures the latency of every put while filling the hash tables, with
+ * and without incremental resizing, and reports the slowest ones. With
+ * incremental resizing the worst put should not grow with the table.
+ * Garbage collection pauses also show up as slow puts, so run it with a
+ * young generation large enough to hold the test (e.g. -Xmn1g).
+ */
+public class ResizeLatencyBenchmark {
+
+	private interface Table {
+		void put(Integer key) throws DuplicateKeyException;
+	}
+
+	private static final int[] SIZES = { 1 << 16, 1 << 18, 1 << 20 };
+
+	public static void main(String...args) throws Exception {
+		System.out.println("table\t\tmode\t\tsize\tp99 (us)\tp99.9 (us)"
+		                   + "\tmax (us)");
+		for (int size : SIZES) {
+			for (final boolean incremental : new boolean[] { false, true }) {
+				final Hashtable<Integer, Integer> cuckoo =
+						new Hashtable<>(2, 4);
+				cuckoo.incrementalResize(incremental);
+				run("Hashtable", incremental, size, new Table() {
+					@Override
+					public void put(Integer key) throws DuplicateKeyException {
+						cuckoo.put(key, key);
+					}
+				});
+				final RobinHoodHash<Integer, Integer> robin =
+						new RobinHoodHash<>();
+				robin.incrementalResize(incremental);
+				run("RobinHoodHash", incremental, size, new Table() {
+					@Override
+					public void put(Integer key) {
+						robin.put(key, key);
+					}
+				});
+			}
+		}
+	}
+
+	private static void run(String name, boolean incremental, int size,
+	                        Table table) throws DuplicateKeyException
+	{
+		Integer[] keys = new Integer[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = i * 0x9E3779B1;
+		long[] latency = new long[size];
+		for (int i = 0; i < size; i++) {
+			long start = System.nanoTime();
+			table.put(keys[i]);
+			latency[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latency);
+		System.out.printf("%-13s\t%-11s\t%d\t%.1f\t\t%.1f\t\t%.1f%n", name,
+		                  incremental ? "incremental" : "rehash", size,
+		                  latency[(int)(size * 0.99)] / 1000.0,
+		                  latency[(int)(size * 0.999)] / 1000.0,
+		                  latency[size - 1] / 1000.0);
+	}
+}
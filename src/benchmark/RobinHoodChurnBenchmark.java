@@ -0,0 +1,64 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import java.util.Random;
+
+import datastructures.RobinHoodHash;
+
+/**
+ * Keeps a RobinHoodHash at a constant number of elements, removing a
+ * random key and inserting a new one on every cycle, and reports how the
+ * average and maximum probe distances evolve.
+ */
+public class RobinHoodChurnBenchmark {
+
+	private static final int KEYS = 1000000;
+	private static final int CYCLES = 5000000;
+	private static final int REPORT = 500000;
+
+	public static void main(String...args) {
+		RobinHoodHash<Integer, Integer> hash = new RobinHoodHash<>();
+		Random random = new Random(42);
+		int[] live = new int[KEYS];
+		int next = 0;
+		for (int i = 0; i < KEYS; i++) {
+			live[i] = key(next++);
+			hash.put(live[i], live[i]);
+		}
+		System.out.println("cycles\tload\tavg dist\tmax dist\tns/cycle");
+		report(0, hash, 0);
+		long start = System.nanoTime();
+		for (int c = 1; c <= CYCLES; c++) {
+			int victim = random.nextInt(KEYS);
+			hash.remove(live[victim]);
+			live[victim] = key(next++);
+			hash.put(live[victim], live[victim]);
+			if (c % REPORT == 0) {
+				long now = System.nanoTime();
+				report(c, hash, (now - start) / (double)REPORT);
+				start = System.nanoTime();
+			}
+		}
+	}
+
+	// scatter sequential numbers into distinct, unordered, keys.
+	private static int key(int n) {
+		return n * 0x9E3779B1;
+	}
+
+	private static void report(int cycles, RobinHoodHash<?, ?> hash,
+	                           double nanos)
+	{
+		System.out.printf("%d\t%.3f\t%.3f\t\t%d\t\t%.1f%n", cycles,
+		                  hash.loadFactor(), hash.averageDistance(),
+		                  hash.maxDistance(), nanos);
+	}
+}
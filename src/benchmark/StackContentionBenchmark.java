@@ -0,0 +1,104 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package benchmark;
+
+import datastructures.LockFreeStack;
+import datastructures.Stack;
+
+/**
+ * Measures the throughput of threads that push and pop in pairs on a
+ * shared stack, from 1 to 8 threads, on a LockFreeStack with and without
+ * its elimination array, and on a Stack protected by a lock.
+ */
+public class StackContentionBenchmark {
+
+	private interface SharedStack {
+		void push(Integer value);
+		Integer pop();
+	}
+
+	private static final long DURATION = 1000;
+
+	public static void main(String...args) throws Exception {
+		System.out.println("threads\telimination (Mops/s)\t"
+		                   + "treiber (Mops/s)\tlocked (Mops/s)");
+		for (int threads = 1; threads <= 8; threads *= 2) {
+			double e = run(lockFree(new LockFreeStack<Integer>()), threads);
+			double t = run(lockFree(new LockFreeStack<Integer>(0)), threads);
+			double l = run(locked(), threads);
+			System.out.printf("%d\t%.2f\t\t\t%.2f\t\t\t%.2f%n",
+			                  threads, e, t, l);
+		}
+	}
+
+	private static SharedStack lockFree(final LockFreeStack<Integer> stack) {
+		return new SharedStack() {
+			@Override
+			public void push(Integer value) {
+				stack.push(value);
+			}
+			@Override
+			public Integer pop() {
+				return stack.pop();
+			}
+		};
+	}
+
+	private static SharedStack locked() {
+		final Stack<Integer> stack = new Stack<>();
+		return new SharedStack() {
+			@Override
+			public synchronized void push(Integer value) {
+				stack.push(value);
+			}
+			@Override
+			public synchronized Integer pop() {
+				return stack.isEmpty() ? null : stack.pop();
+			}
+		};
+	}
+
+	// run the threads for a fixed time, returning millions of push and
+	// pop operations per second.
+	private static double run(final SharedStack stack, int threads)
+			throws InterruptedException
+	{
+		final long[] counts = new long[threads * 8];
+		final long end = System.currentTimeMillis() + DURATION;
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Integer value = id;
+					long operations = 0;
+					while (System.currentTimeMillis() < end) {
+						for (int i = 0; i < 1000; i++) {
+							stack.push(value);
+							stack.pop();
+						}
+						operations += 2000;
+					}
+					// counters 8 longs apart do not share a cache line.
+					counts[id * 8] = operations;
+				}
+			});
+		}
+		for (Thread worker : workers)
+			worker.start();
+		for (Thread worker : workers)
+			worker.join();
+		long total = 0;
+		for (long count : counts)
+			total += count;
+		return total / (DURATION * 1e3);
+	}
+}
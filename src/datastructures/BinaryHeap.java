@@ -18,6 +18,8 @@ public class BinaryHeap<T> {
 	private T[] data;
 	private int count;
 	private Comparator<T> cmp;
+	private double growthFactor = Growth.DEFAULT_FACTOR;
+	private int maxGrowth = 0;
 	
 	/**
 	 * Store the number of operations on the last push
@@ -37,9 +39,23 @@ public class BinaryHeap<T> {
 	 * create a <i>minimum heap</i>, use FunctionObjects.greater to
 	 * create a <i>maximum heap</i>.
 	 */
-	@SuppressWarnings("unchecked")
 	public BinaryHeap(Comparator<T> cmp) {
-		this.data = (T[])new Object[16];
+		this(cmp, 16);
+	}
+
+	/**
+	 * <p>Creates a new heap, given the comparator to use, with room for a
+	 * given number of elements.</p>
+	 * @param cmp The comparator function.
+	 * @param initialCapacity The number of elements that can be stored
+	 * before the heap needs to grow.
+	 */
+	@SuppressWarnings("unchecked")
+	public BinaryHeap(Comparator<T> cmp, int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException(
+					"Negative capacity: " + initialCapacity);
+		this.data = (T[])new Object[initialCapacity];
 		this.count = 0;
 		this.cmp = cmp;
 	}
@@ -148,15 +164,54 @@ public class BinaryHeap<T> {
 	}
 	
 	//
-	@SuppressWarnings("unchecked")
 	private void ensureEnoughSpace() {
 		if (count < data.length)
 			return;
-		int sz = data.length > 1024 ? data.length+1024 : data.length*2;
+		ensureCapacity(count + 1);
+	}
+
+	/**
+	 * <p>Grow the storage, if needed, so that it can hold at least the
+	 * given number of elements without growing again.</p>
+	 * @param capacity The number of elements to make room for.
+	 */
+	@SuppressWarnings("unchecked")
+	public void ensureCapacity(int capacity) {
+		if (capacity <= data.length)
+			return;
+		int sz = Growth.grow(data.length, capacity, growthFactor, maxGrowth);
 		Object[] store = new Object[sz];
 		System.arraycopy(data,0, store, 0, count);
 		data = (T[])store;
 	}
+
+	/**
+	 * <p>Shrink the storage to the number of elements stored.</p>
+	 */
+	@SuppressWarnings("unchecked")
+	public void trimToSize() {
+		if (count == data.length)
+			return;
+		Object[] store = new Object[count];
+		System.arraycopy(data,0, store, 0, count);
+		data = (T[])store;
+	}
+
+	/**
+	 * <p>Configure how the storage grows when it is full. The capacity is
+	 * multiplied by a factor, so pushes take amortized constant time
+	 * besides the sift, and the growth may be limited to a maximum number
+	 * of elements, to bound the unused memory of very large heaps.</p>
+	 * @param factor The factor applied to the capacity, greater than 1.
+	 * The default is 2.
+	 * @param maxStep The maximum number of elements added on each growth,
+	 * or 0 for no limit, the default.
+	 */
+	public void growthPolicy(double factor, int maxStep) {
+		Growth.validate(factor, maxStep);
+		growthFactor = factor;
+		maxGrowth = maxStep;
+	}
 	
 	/**
 	 * <p>Remove the top element of the heap and return it.</p>
@@ -0,0 +1,275 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>An unbounded FIFO queue, where consumers can wait for elements to be
+ * added, shared by many threads.</p>
+ * <p>The elements are kept in a Queue, guarded by a ReentrantLock held
+ * only while the Queue is changed, and no monitor is used, so a virtual
+ * thread waiting on this queue never pins its carrier thread. A consumer
+ * that finds the queue empty first retries a number of times, spinning
+ * and then yielding, and then parks with LockSupport in a FIFO of
+ * waiters. Only the oldest waiter is unparked when the queue stops being
+ * empty, and a consumer that leaves elements behind unparks the next
+ * one, so consumers are woken as fast as they are needed, and not once
+ * per element.</p>
+ */
+public class BlockingQueue<T> {
+
+	private static final class Waiter {
+		final Thread thread = Thread.currentThread();
+		volatile boolean signalled;
+		boolean cancelled;
+	}
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Queue<T> elements = new Queue<>();
+	private final Queue<Waiter> waiters = new Queue<>();
+	// the size of the elements, read without the lock while spinning.
+	private volatile int count = 0;
+	// waiters that timed out or were interrupted, still in the FIFO.
+	private int cancelled = 0;
+	// the waiter to unpark after the lock is released.
+	private Thread wakeUp;
+	private int spins = 64;
+	private int yields = 4;
+
+	/**
+	 * Set how a consumer waits for an element, before parking. The
+	 * default is 64 spins and 4 yields. Spinning only helps when
+	 * producers run on other processors.
+	 * @param spins The number of times to retry without yielding.
+	 * @param yields The number of times to retry after yielding the
+	 * processor.
+	 */
+	public void waitStrategy(int spins, int yields) {
+		if (spins < 0 || yields < 0)
+			throw new IllegalArgumentException(
+					"Number of retries cannot be negative.");
+		this.spins = spins;
+		this.yields = yields;
+	}
+
+	/**
+	 * Add a new value to the end of the queue, unparking a waiting consumer
+	 * if the queue was empty.
+	 * @param value The value to be added.
+	 */
+	public void put(T value) {
+		if (value == null)
+			throw new NullPointerException();
+		lock.lock();
+		try {
+			elements.push(value);
+			count++;
+			if (count == 1)
+				signal();
+		} finally {
+			unlock();
+		}
+	}
+
+	// select the oldest waiter that was not cancelled, to be unparked
+	// by unlock(). Must hold the lock.
+	private void signal() {
+		while (!waiters.isEmpty()) {
+			Waiter waiter = waiters.pop();
+			if (!waiter.cancelled) {
+				waiter.signalled = true;
+				wakeUp = waiter.thread;
+				return;
+			}
+			cancelled--;
+		}
+	}
+
+	// release the lock, and then unpark the waiter signalled, so it does
+	// not find the lock still held.
+	private void unlock() {
+		Thread thread = wakeUp;
+		wakeUp = null;
+		lock.unlock();
+		if (thread != null)
+			LockSupport.unpark(thread);
+	}
+
+	// remove the first element, unparking another waiter if elements are
+	// left. Must hold the lock, and the queue must not be empty.
+	private T dequeue() {
+		T value = elements.pop();
+		count--;
+		if (count > 0)
+			signal();
+		return value;
+	}
+
+	/**
+	 * Remove the element at the front of the queue, without waiting.
+	 * @return The element removed, or null if the queue is empty.
+	 */
+	public T poll() {
+		if (count == 0)
+			return null;
+		lock.lock();
+		try {
+			if (elements.isEmpty())
+				return null;
+			return dequeue();
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * Remove the element at the front of the queue, waiting for one to be
+	 * added if the queue is empty.
+	 * @return The element removed.
+	 * @throws InterruptedException If the thread is interrupted while
+	 * waiting.
+	 */
+	public T take() throws InterruptedException {
+		return await(false, 0);
+	}
+
+	/**
+	 * Remove the element at the front of the queue, waiting up to a time
+	 * for one to be added if the queue is empty.
+	 * @param timeout The time to wait, in units.
+	 * @param unit The unit of the timeout.
+	 * @return The element removed, or null if the time elapsed.
+	 * @throws InterruptedException If the thread is interrupted while
+	 * waiting.
+	 */
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		if (nanos <= 0)
+			return poll();
+		return await(true, System.nanoTime() + nanos);
+	}
+
+	/**
+	 * Remove up to a number of elements from the front of the queue,
+	 * waiting for the first one to be added if the queue is empty.
+	 * @param out The array that receives the elements removed, from the
+	 * index 0.
+	 * @param max The maximum number of elements to remove.
+	 * @return The number of elements removed, at least 1.
+	 * @throws InterruptedException If the thread is interrupted while
+	 * waiting.
+	 */
+	public int takeUpTo(T[] out, int max) throws InterruptedException {
+		max = Math.min(max, out.length);
+		if (max < 1)
+			throw new IllegalArgumentException("Nothing to take: " + max);
+		out[0] = take();
+		int n = 1;
+		if (count == 0)
+			return n;
+		lock.lock();
+		try {
+			for (; n < max && !elements.isEmpty(); n++)
+				out[n] = elements.pop();
+			count -= n - 1;
+			if (count > 0)
+				signal();
+		} finally {
+			unlock();
+		}
+		return n;
+	}
+
+	// wait for an element until a deadline, if timed, or forever.
+	private T await(boolean timed, long deadline) throws InterruptedException {
+		for (int i = 0; i < spins + yields; i++) {
+			if (Thread.interrupted())
+				throw new InterruptedException();
+			T value = poll();
+			if (value != null)
+				return value;
+			if (i >= spins)
+				Thread.yield();
+		}
+		while (true) {
+			Waiter waiter = new Waiter();
+			lock.lock();
+			try {
+				if (!elements.isEmpty())
+					return dequeue();
+				if (timed && deadline - System.nanoTime() <= 0)
+					return null;
+				waiters.push(waiter);
+			} finally {
+				unlock();
+			}
+			boolean interrupted = false;
+			while (!waiter.signalled) {
+				if (!timed) {
+					LockSupport.park(this);
+				} else {
+					long nanos = deadline - System.nanoTime();
+					if (nanos <= 0)
+						break;
+					LockSupport.parkNanos(this, nanos);
+				}
+				if (Thread.interrupted()) {
+					interrupted = true;
+					break;
+				}
+			}
+			lock.lock();
+			try {
+				if (!waiter.signalled)
+					cancel(waiter);
+				else if (interrupted && count > 0)
+					// do not lose the wake up meant for this waiter.
+					signal();
+			} finally {
+				unlock();
+			}
+			if (interrupted)
+				throw new InterruptedException();
+		}
+	}
+
+	// mark a waiter as cancelled, removing the cancelled waiters from the
+	// FIFO when they are half of it. Must hold the lock.
+	private void cancel(Waiter waiter) {
+		waiter.cancelled = true;
+		if (++cancelled <= waiters.size() / 2)
+			return;
+		for (int i = waiters.size(); i > 0; i--) {
+			Waiter w = waiters.pop();
+			if (!w.cancelled)
+				waiters.push(w);
+		}
+		cancelled = 0;
+	}
+
+	/**
+	 * Queries the number of elements in the queue.
+	 * @return The number of elements in the queue.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Check if the queue is empty.
+	 * @return True if there are no elements in the queue.
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Implements a list data structure where elements are stored in chunks
+ * of a fixed, power of two, size, referenced by a spine array.</p>
+ * <p>Growing only allocates a new chunk, so elements are never copied,
+ * and there is no peak of twice the memory used, as when a Vector grows.
+ * Only the spine, with one reference per chunk, is copied when it is
+ * full. An element is found with a shift and a mask of its index, which
+ * is a long, so the vector can hold more than Integer.MAX_VALUE
+ * elements.</p>
+ * <p>Elements are only added and removed at the end of the vector.</p>
+ */
+public class ChunkedVector<T> implements java.lang.Iterable<T> {
+
+	private class ChunkedVectorIterator implements java.util.Iterator<T> {
+		private long current = 0;
+
+		@Override
+		public boolean hasNext() {
+			return current < count;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return get(current++);
+		}
+	}
+
+	private final int chunkShift;
+	private final int chunkMask;
+	private Object[][] spine = new Object[16][];
+	private long count = 0;
+
+	/**
+	 * Creates an empty vector, with chunks of 16384 elements.
+	 */
+	public ChunkedVector() {
+		this(14);
+	}
+
+	/**
+	 * Creates an empty vector, with chunks of 2^chunkBits elements.
+	 * @param chunkBits The base 2 logarithm of the chunk size, from 0 to
+	 * 30.
+	 */
+	public ChunkedVector(int chunkBits) {
+		if (chunkBits < 0 || chunkBits > 30)
+			throw new IllegalArgumentException(
+					"Invalid chunk size: 2^" + chunkBits);
+		this.chunkShift = chunkBits;
+		this.chunkMask = (1 << chunkBits) - 1;
+	}
+
+	/**
+	 * Query the number of elements stored.
+	 * @return The current number of elements stored.
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * Check if there are elements in the vector.
+	 * @return True if there are no elements stored, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Append a value to the end of the data.
+	 * @param value The value to be stored.
+	 */
+	public void append(T value) {
+		int chunk = (int)(count >>> chunkShift);
+		int offset = (int)count & chunkMask;
+		if (offset == 0) {
+			if (chunk == spine.length)
+				growSpine();
+			if (spine[chunk] == null)
+				spine[chunk] = new Object[chunkMask + 1];
+		}
+		spine[chunk][offset] = value;
+		count++;
+	}
+
+	// only the references to the chunks are copied.
+	private void growSpine() {
+		int size = Growth.grow(spine.length, spine.length + 1,
+		                       Growth.DEFAULT_FACTOR, 0);
+		Object[][] novo = new Object[size][];
+		System.arraycopy(spine, 0, novo, 0, spine.length);
+		spine = novo;
+	}
+
+	private void validateIndex(long index) {
+		if (index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	/**
+	 * Returns an element stored at a given index.
+	 * @param index The index of the element to be retrieved.
+	 * @return The element at the given index.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(long index) {
+		validateIndex(index);
+		return (T)spine[(int)(index >>> chunkShift)][(int)index & chunkMask];
+	}
+
+	/**
+	 * Set an element of the vector at a given index to the given value.
+	 * @param index The index of the element to be changed.
+	 * @param value The new value of the element.
+	 */
+	public void set(long index, T value) {
+		validateIndex(index);
+		spine[(int)(index >>> chunkShift)][(int)index & chunkMask] = value;
+	}
+
+	/**
+	 * Returns the last element of the vector.
+	 * @return The last element of the vector.
+	 */
+	public T last() {
+		if (count > 0)
+			return get(count - 1);
+		throw new IllegalStateException("Vector is empty.");
+	}
+
+	/**
+	 * Remove the last element of the vector. The chunk emptied last is
+	 * kept as a spare, to be reused by append, and a chunk is released
+	 * only when the chunk before it is emptied too, so appending and
+	 * removing at a chunk boundary does not allocate a chunk every time.
+	 * @return The element removed.
+	 */
+	public T removeLast() {
+		T value = last();
+		count--;
+		int chunk = (int)(count >>> chunkShift);
+		int offset = (int)count & chunkMask;
+		spine[chunk][offset] = null;
+		if (offset == 0 && chunk + 1 < spine.length)
+			spine[chunk + 1] = null;
+		return value;
+	}
+
+	/**
+	 * Returns an iterator over the elements of the vector.
+	 */
+	@Override
+	public java.util.Iterator<T> iterator() {
+		return new ChunkedVectorIterator();
+	}
+}
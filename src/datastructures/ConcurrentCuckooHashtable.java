@@ -0,0 +1,428 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A thread safe hash table using bucketized Cuckoo Hashing, with two
+ * hashes.</p>
+ * <p>Writers lock the stripes that cover the buckets they modify. Each
+ * stripe has a version counter, which is odd while a writer is changing
+ * one of its buckets, so readers never lock: they read the version of
+ * both buckets of a key, search the buckets and retry if any of the
+ * versions changed.</p>
+ * <p>When both buckets of a new key are full, a path of displacements
+ * ending in a free slot is searched without locks, and only then the
+ * entries on the path are moved, from the last to the first, each move
+ * locking only the two buckets involved.</p>
+ */
+public class ConcurrentCuckooHashtable<K, V> {
+
+	private static final int STRIPES = 1 << 10;
+	private static final int MAX_PATH = 5;
+	private static final int MAX_SEARCH = 512;
+	// the number of times a reader retries before yielding the processor.
+	private static final int SPINS = 64;
+
+	private static final class Entry {
+		final Object key;
+		final Object value;
+		final long hash;
+
+		Entry(Object key, Object value, long hash) {
+			this.key = key;
+			this.value = value;
+			this.hash = hash;
+		}
+	}
+
+	private static final class Table {
+		final AtomicReferenceArray<Entry> slots;
+		final int buckets;
+		final long seed;
+
+		Table(int buckets, int bucketSize) {
+			this.slots = new AtomicReferenceArray<>(buckets * bucketSize);
+			this.buckets = buckets;
+			this.seed = Hashing.newSeed();
+		}
+	}
+
+	// a node of the breadth first search for a displacement path.
+	private static final class PathNode {
+		final int bucket;
+		final int slot;
+		final int parent;
+		final int depth;
+
+		PathNode(int bucket, int slot, int parent, int depth) {
+			this.bucket = bucket;
+			this.slot = slot;
+			this.parent = parent;
+			this.depth = depth;
+		}
+	}
+
+	private final int bucketSize;
+	private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+	private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+	private final LongAdder elementCount = new LongAdder();
+	private volatile Table table;
+
+	/**
+	 * Create a new concurrent hash table, with buckets of 4 slots.
+	 */
+	public ConcurrentCuckooHashtable() {
+		this(4);
+	}
+
+	/**
+	 * Create a new concurrent hash table, with a given bucket size.
+	 * @param bucketSize The number of slots in each bucket.
+	 */
+	public ConcurrentCuckooHashtable(int bucketSize) {
+		if (bucketSize < 1)
+			bucketSize = 1;
+		this.bucketSize = bucketSize;
+		for (int i = 0; i < STRIPES; i++)
+			locks[i] = new ReentrantLock();
+		this.table = new Table(8, bucketSize);
+	}
+
+	private static int bucket(Table t, long hash, int i) {
+		return Hashing.reduce(Hashing.nth(hash, i), t.buckets);
+	}
+
+	private static int alternate(Table t, Entry e, int bucket) {
+		int b = bucket(t, e.hash, 0);
+		return b == bucket ? bucket(t, e.hash, 1) : b;
+	}
+
+	private static int stripe(int bucket) {
+		return bucket & (STRIPES - 1);
+	}
+
+	// lock the stripes of two buckets, always in the same order.
+	private void lock(int b1, int b2) {
+		int s1 = stripe(b1), s2 = stripe(b2);
+		if (s1 == s2) {
+			locks[s1].lock();
+		} else {
+			locks[Math.min(s1, s2)].lock();
+			locks[Math.max(s1, s2)].lock();
+		}
+	}
+
+	private void unlock(int b1, int b2) {
+		int s1 = stripe(b1), s2 = stripe(b2);
+		locks[s1].unlock();
+		if (s1 != s2)
+			locks[s2].unlock();
+	}
+
+	// mark the buckets as being modified (odd version) or stable (even).
+	private void bump(int b1, int b2) {
+		int s1 = stripe(b1), s2 = stripe(b2);
+		versions.incrementAndGet(s1);
+		if (s1 != s2)
+			versions.incrementAndGet(s2);
+	}
+
+	private int findSlot(Table t, int bucket, Object key, long hash) {
+		int first = bucket * bucketSize;
+		for (int s = first; s < first + bucketSize; s++) {
+			Entry e = t.slots.get(s);
+			if (e != null && e.hash == hash && e.key.equals(key))
+				return s;
+		}
+		return -1;
+	}
+
+	private int freeSlot(Table t, int bucket) {
+		int first = bucket * bucketSize;
+		for (int s = first; s < first + bucketSize; s++)
+			if (t.slots.get(s) == null)
+				return s;
+		return -1;
+	}
+
+	/**
+	 * Returns a value associated with a given key, or null, if the key is
+	 * not found. This method never blocks.
+	 * @param key The key to search for.
+	 * @return The value associated with the key, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		for (int retries = 0; ; retries++) {
+			// a writer, or a resize, holds the stripes for a while: spin
+			// a few times, and then let it run.
+			if (retries > SPINS)
+				Thread.yield();
+			Table t = table;
+			long hash = Hashing.hash(key, t.seed);
+			int b1 = bucket(t, hash, 0), b2 = bucket(t, hash, 1);
+			int s1 = stripe(b1), s2 = stripe(b2);
+			long v1 = versions.get(s1), v2 = versions.get(s2);
+			if (((v1 | v2) & 1) != 0)
+				continue;
+			int pos = findSlot(t, b1, key, hash);
+			if (pos < 0)
+				pos = findSlot(t, b2, key, hash);
+			Entry e = pos < 0 ? null : t.slots.get(pos);
+			if (versions.get(s1) == v1 && versions.get(s2) == v2)
+				return e == null ? null : (V)e.value;
+		}
+	}
+
+	/**
+	 * Insert a new key-value pair into the table.
+	 * @param key The key to the value.
+	 * @param value The value associated with the key.
+	 * @throws DuplicateKeyException If the key already exists.
+	 */
+	public void put(K key, V value)
+			throws DuplicateKeyException
+	{
+		while (true) {
+			Table t = table;
+			long hash = Hashing.hash(key, t.seed);
+			int b1 = bucket(t, hash, 0), b2 = bucket(t, hash, 1);
+			lock(b1, b2);
+			try {
+				if (t != table)
+					continue;
+				if (findSlot(t, b1, key, hash) >= 0
+						|| findSlot(t, b2, key, hash) >= 0)
+					throw new DuplicateKeyException("Duplicate key:" + key);
+				int pos = freeSlot(t, b1);
+				if (pos < 0)
+					pos = freeSlot(t, b2);
+				if (pos >= 0) {
+					bump(b1, b2);
+					t.slots.set(pos, new Entry(key, value, hash));
+					bump(b1, b2);
+					elementCount.increment();
+					return;
+				}
+			} finally {
+				unlock(b1, b2);
+			}
+			if (!makeRoom(t, b1, b2))
+				resize(t);
+		}
+	}
+
+	/**
+	 * Change the value associated with an existing key, or add a new
+	 * value if the key is not found.
+	 * @param key The key to search for.
+	 * @param value The new value associated with the key.
+	 */
+	public void set(K key, V value) {
+		while (true) {
+			Table t = table;
+			long hash = Hashing.hash(key, t.seed);
+			int b1 = bucket(t, hash, 0), b2 = bucket(t, hash, 1);
+			lock(b1, b2);
+			try {
+				if (t != table)
+					continue;
+				int pos = findSlot(t, b1, key, hash);
+				if (pos < 0)
+					pos = findSlot(t, b2, key, hash);
+				if (pos >= 0) {
+					bump(b1, b2);
+					t.slots.set(pos, new Entry(key, value, hash));
+					bump(b1, b2);
+					return;
+				}
+			} finally {
+				unlock(b1, b2);
+			}
+			try {
+				put(key, value);
+				return;
+			} catch (DuplicateKeyException e) {
+				// inserted by another thread, try to replace it again.
+			}
+		}
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the table.
+	 * @param key The key to be removed.
+	 */
+	public void remove(K key) {
+		while (true) {
+			Table t = table;
+			long hash = Hashing.hash(key, t.seed);
+			int b1 = bucket(t, hash, 0), b2 = bucket(t, hash, 1);
+			lock(b1, b2);
+			try {
+				if (t != table)
+					continue;
+				int pos = findSlot(t, b1, key, hash);
+				if (pos < 0)
+					pos = findSlot(t, b2, key, hash);
+				if (pos >= 0) {
+					bump(b1, b2);
+					t.slots.set(pos, null);
+					bump(b1, b2);
+					elementCount.decrement();
+				}
+				return;
+			} finally {
+				unlock(b1, b2);
+			}
+		}
+	}
+
+	/*
+	 * Search, without locking, for a path of displacements that frees a
+	 * slot in one of the given buckets, and then execute the moves from
+	 * the end of the path to its beginning. Returns false if no path was
+	 * found, and the table must grow, or true if the insertion should be
+	 * tried again.
+	 */
+	private boolean makeRoom(Table t, int b1, int b2) {
+		PathNode[] nodes = new PathNode[MAX_SEARCH];
+		int head = 0, tail = 0;
+		for (int b : new int[] { b1, b2 })
+			for (int s = 0; s < bucketSize; s++)
+				nodes[tail++] = new PathNode(b, b * bucketSize + s, -1, 0);
+		int end = -1;
+		while (head < tail && end < 0) {
+			PathNode node = nodes[head];
+			Entry e = t.slots.get(node.slot);
+			if (e == null) {
+				end = head;
+				break;
+			}
+			int next = alternate(t, e, node.bucket);
+			int free = freeSlot(t, next);
+			if (free >= 0) {
+				if (tail < MAX_SEARCH) {
+					nodes[tail] = new PathNode(next, free, head, node.depth+1);
+					end = tail++;
+				}
+				break;
+			}
+			if (node.depth + 1 < MAX_PATH)
+				for (int s = 0; s < bucketSize && tail < MAX_SEARCH; s++)
+					nodes[tail++] = new PathNode(next, next * bucketSize + s,
+					                             head, node.depth+1);
+			head++;
+		}
+		if (end < 0)
+			return false;
+		for (PathNode to = nodes[end]; to.parent >= 0; to = nodes[to.parent]) {
+			PathNode from = nodes[to.parent];
+			if (!move(t, from, to))
+				return true;
+		}
+		return true;
+	}
+
+	// move the entry in one slot of a path to the next slot of the path.
+	private boolean move(Table t, PathNode from, PathNode to) {
+		lock(from.bucket, to.bucket);
+		try {
+			if (t != table)
+				return false;
+			Entry e = t.slots.get(from.slot);
+			if (e == null || t.slots.get(to.slot) != null
+					|| alternate(t, e, from.bucket) != to.bucket)
+				return false;
+			bump(from.bucket, to.bucket);
+			t.slots.set(to.slot, e);
+			t.slots.set(from.slot, null);
+			bump(from.bucket, to.bucket);
+			return true;
+		} finally {
+			unlock(from.bucket, to.bucket);
+		}
+	}
+
+	/*
+	 * Grow the table, holding every lock. If another thread already
+	 * replaced the table, nothing is done.
+	 */
+	private void resize(Table old) {
+		for (ReentrantLock l : locks)
+			l.lock();
+		try {
+			if (old != table)
+				return;
+			int buckets = old.buckets * 2;
+			Table t = new Table(buckets, bucketSize);
+			while (!copy(old, t)) {
+				buckets *= 2;
+				t = new Table(buckets, bucketSize);
+			}
+			table = t;
+		} finally {
+			for (ReentrantLock l : locks)
+				l.unlock();
+		}
+	}
+
+	// copy every entry of a table to a new, unpublished, one.
+	private boolean copy(Table from, Table to) {
+		for (int i = 0; i < from.slots.length(); i++) {
+			Entry e = from.slots.get(i);
+			if (e != null && !place(to, new Entry(e.key, e.value,
+					Hashing.hash(e.key, to.seed))))
+				return false;
+		}
+		return true;
+	}
+
+	// insert into a table not yet visible to other threads.
+	private boolean place(Table t, Entry e) {
+		int bucket = bucket(t, e.hash, 0);
+		for (int i = 0; i < MAX_SEARCH; i++) {
+			int pos = freeSlot(t, bucket);
+			if (pos < 0)
+				pos = freeSlot(t, alternate(t, e, bucket));
+			if (pos >= 0) {
+				t.slots.set(pos, e);
+				return true;
+			}
+			pos = bucket * bucketSize + i % bucketSize;
+			Entry cuckoo = t.slots.get(pos);
+			t.slots.set(pos, e);
+			e = cuckoo;
+			bucket = alternate(t, e, bucket);
+		}
+		return false;
+	}
+
+	/**
+	 * Queries the current load factor do the table.
+	 * @return The ratio between the number of elements stored and the
+	 * amount of memory used for it.
+	 */
+	public double loadFactor() {
+		return size() / (1.0 * table.slots.length());
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the hash table.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return elementCount.intValue();
+	}
+}
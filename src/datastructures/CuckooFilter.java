@@ -0,0 +1,288 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * <p>A Cuckoo Filter, an approximate set that answers if an element might
+ * have been added to it, or was certainly not, and that, unlike a Bloom
+ * filter, also supports removals.</p>
+ * <p>Only a fingerprint of 8 to 16 bits of each element is stored, in
+ * buckets of 4 fingerprints packed in an array of longs. As in the cuckoo
+ * Hashtable, each element has two candidate buckets, and a fingerprint
+ * that finds both full evicts one from its bucket, that moves to its
+ * alternate bucket. The alternate bucket is computed from the bucket and
+ * the fingerprint alone, as the elements are not stored. With the default
+ * false positive rate of 3%, the filter uses about one byte per
+ * element.</p>
+ * <p>An element must only be removed if it was added, otherwise another
+ * element with the same fingerprint may be removed. This class is not
+ * thread safe.</p>
+ */
+public class CuckooFilter<T> {
+
+	private static final int BUCKET_SIZE = 4;
+	private static final double MAX_LOAD = 0.95;
+	private static final int MAX_TRIES = 500;
+
+	private final int bits;
+	private final long fingerprintMask;
+	private final int buckets;
+	private final long[] table;
+	private final long seed;
+	private int count;
+	private int victim;
+	private int victimBucket;
+
+	/**
+	 * Create a new filter for a given number of elements, with a false
+	 * positive rate of 3%.
+	 * @param capacity The number of elements expected.
+	 */
+	public CuckooFilter(int capacity) {
+		this(capacity, 0.03);
+	}
+
+	/**
+	 * Create a new filter for a given number of elements, and a given
+	 * false positive rate. The fingerprints use as many bits as needed
+	 * for the rate, between 8 and 16.
+	 * @param capacity The number of elements expected.
+	 * @param falsePositiveRate The expected rate of false positives, when
+	 * the filter is full.
+	 */
+	public CuckooFilter(int capacity, double falsePositiveRate) {
+		if (capacity < 1)
+			capacity = 1;
+		// a lookup compares 2 * BUCKET_SIZE fingerprints, so the rate is
+		// about 2 * BUCKET_SIZE * load / 2^bits.
+		double needed = Math.log(2 * BUCKET_SIZE * MAX_LOAD
+		                         / falsePositiveRate) / Math.log(2);
+		this.bits = Math.max(8, Math.min(16, (int)Math.ceil(needed)));
+		this.fingerprintMask = (1L << bits) - 1;
+		this.buckets = (int)Math.ceil(capacity / (BUCKET_SIZE * MAX_LOAD));
+		long slots = (long)buckets * BUCKET_SIZE;
+		// one more word, so a fingerprint can always span two words.
+		this.table = new long[(int)((slots * bits + 63) / 64) + 1];
+		this.seed = Hashing.newSeed();
+	}
+
+	// read the fingerprint stored in a slot.
+	private int read(int slot) {
+		long bit = (long)slot * bits;
+		int word = (int)(bit >>> 6);
+		int shift = (int)(bit & 63);
+		long value = table[word] >>> shift;
+		if (shift + bits > 64)
+			value |= table[word + 1] << (64 - shift);
+		return (int)(value & fingerprintMask);
+	}
+
+	// store a fingerprint in a slot.
+	private void write(int slot, int fingerprint) {
+		long bit = (long)slot * bits;
+		int word = (int)(bit >>> 6);
+		int shift = (int)(bit & 63);
+		table[word] = (table[word] & ~(fingerprintMask << shift))
+		              | ((long)fingerprint << shift);
+		int high = shift + bits - 64;
+		if (high > 0)
+			table[word + 1] = (table[word + 1] & ~((1L << high) - 1))
+			                  | (fingerprint >>> (64 - shift));
+	}
+
+	// the fingerprint of a hash, which is never 0, as 0 marks empty slots.
+	private int fingerprint(long hash) {
+		int fingerprint = (int)((hash >>> 32) & fingerprintMask);
+		return fingerprint == 0 ? 1 : fingerprint;
+	}
+
+	private int firstBucket(long hash) {
+		return Hashing.reduce((int)hash & 0x7FFFFFFF, buckets);
+	}
+
+	/*
+	 * The other bucket of a fingerprint stored in a bucket. It is
+	 * (h - bucket) mod buckets, for a hash h of the fingerprint, so
+	 * applying it twice returns the first bucket, for any number of
+	 * buckets, and without a division.
+	 */
+	private int alternate(int bucket, int fingerprint) {
+		int h = Hashing.reduce((int)Hashing.mix64(fingerprint) & 0x7FFFFFFF,
+		                       buckets);
+		int other = h - bucket;
+		return other < 0 ? other + buckets : other;
+	}
+
+	private boolean contains(int bucket, int fingerprint) {
+		int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++)
+			if (read(s) == fingerprint)
+				return true;
+		return false;
+	}
+
+	// store a fingerprint in a free slot of a bucket, if there is one.
+	private boolean store(int bucket, int fingerprint) {
+		int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++) {
+			if (read(s) == 0) {
+				write(s, fingerprint);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Add an element to the filter.
+	 * @param element The element to be added.
+	 * @return True if the element was added, or false if the filter is
+	 * full.
+	 */
+	public boolean add(T element) {
+		if (victim != 0)
+			return false;
+		long hash = Hashing.hash(element, seed);
+		int fingerprint = fingerprint(hash);
+		int bucket = firstBucket(hash);
+		if (store(bucket, fingerprint)
+		    || store(alternate(bucket, fingerprint), fingerprint)) {
+			count++;
+			return true;
+		}
+		// both buckets are full: kick out a fingerprint, choosing a
+		// different slot of the bucket on each step, and move it to its
+		// other bucket.
+		bucket = alternate(bucket, fingerprint);
+		for (int i = 0; i < MAX_TRIES; i++) {
+			int pos = bucket * BUCKET_SIZE + i % BUCKET_SIZE;
+			int cuckoo = read(pos);
+			write(pos, fingerprint);
+			fingerprint = cuckoo;
+			bucket = alternate(bucket, fingerprint);
+			if (store(bucket, fingerprint)) {
+				count++;
+				return true;
+			}
+		}
+		// the last fingerprint kicked out is kept apart, so no element
+		// that was added is lost, and the filter is full.
+		victim = fingerprint;
+		victimBucket = bucket;
+		count++;
+		return true;
+	}
+
+	/**
+	 * Queries if an element might have been added to the filter.
+	 * @param element The element to search for.
+	 * @return False if the element was certainly not added, true if it
+	 * probably was.
+	 */
+	public boolean mightContain(T element) {
+		long hash = Hashing.hash(element, seed);
+		int fingerprint = fingerprint(hash);
+		int bucket = firstBucket(hash);
+		return lookup(bucket, fingerprint);
+	}
+
+	private boolean lookup(int bucket, int fingerprint) {
+		int other = alternate(bucket, fingerprint);
+		if (contains(bucket, fingerprint) || contains(other, fingerprint))
+			return true;
+		return victim == fingerprint
+		       && (victimBucket == bucket || victimBucket == other);
+	}
+
+	/**
+	 * Queries a batch of elements, calling mightContain() for each one.
+	 * Hashing a group of elements before searching their buckets was not
+	 * measurably faster, as the lookups of a loop are already independent.
+	 * @param elements The elements to search for.
+	 * @param out The array that receives, at the index of each element,
+	 * the result of mightContain() for it.
+	 */
+	public void mightContainAll(T[] elements, boolean[] out) {
+		for (int i = 0; i < elements.length; i++)
+			out[i] = mightContain(elements[i]);
+	}
+
+	/**
+	 * Remove an element from the filter. The element must have been
+	 * added, otherwise another element may be removed.
+	 * @param element The element to be removed.
+	 * @return True if a fingerprint of the element was found and removed.
+	 */
+	public boolean remove(T element) {
+		long hash = Hashing.hash(element, seed);
+		int fingerprint = fingerprint(hash);
+		int bucket = firstBucket(hash);
+		int other = alternate(bucket, fingerprint);
+		if (victim == fingerprint
+		    && (victimBucket == bucket || victimBucket == other)) {
+			victim = 0;
+			count--;
+			return true;
+		}
+		if (erase(bucket, fingerprint) || erase(other, fingerprint)) {
+			count--;
+			// there is room again for the fingerprint kept apart.
+			if (victim != 0 && (store(victimBucket, victim)
+			    || store(alternate(victimBucket, victim), victim)))
+				victim = 0;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean erase(int bucket, int fingerprint) {
+		int first = bucket * BUCKET_SIZE;
+		for (int s = first; s < first + BUCKET_SIZE; s++) {
+			if (read(s) == fingerprint) {
+				write(s, 0);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the filter.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Queries the current load factor do the filter.
+	 * @return The ratio between the number of elements stored and the
+	 * number of fingerprint slots.
+	 */
+	public double loadFactor() {
+		return count / (1.0 * buckets * BUCKET_SIZE);
+	}
+
+	/**
+	 * Queries the number of bits of each fingerprint.
+	 * @return The number of bits of each fingerprint.
+	 */
+	public int fingerprintBits() {
+		return bits;
+	}
+
+	/**
+	 * Queries the amount of memory used by the fingerprints.
+	 * @return The number of bytes used.
+	 */
+	public long memoryUsage() {
+		return table.length * 8L;
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.NoSuchElementException;
+
+import interfaces.Iterator;
+
+/**
+ * <p>Implements a list data structure as a gap buffer: the elements are
+ * stored in a single array, with the unused space kept as a gap at the
+ * position of the last edit.</p>
+ * <p>An insertion or removal moves the gap to its position, copying only
+ * the elements between the old and the new position of the gap, and then
+ * uses or grows the gap. Edits close to each other, like the ones made
+ * while iterating, take amortized constant time, where a Vector copies
+ * the whole tail of the array on every edit. Edits far apart cost as much
+ * as in a Vector.</p>
+ */
+public class GapVector<T> implements interfaces.Iterable<T> {
+
+	private class GapVectorIterator implements Iterator<T> {
+		private int current = -1;
+		private boolean removed = false;
+
+		@Override
+		public void insert(T value) {
+			if (current < 0 || removed)
+				throw new IllegalStateException("Usage before next().");
+			GapVector.this.insert(current, value);
+			current++;
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0 || removed)
+				throw new IllegalStateException("Usage before next().");
+			GapVector.this.remove(current);
+			current--;
+			removed = true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			removed = false;
+			current++;
+			return get(current);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current < count - 1;
+		}
+	}
+
+	private Object[] data;
+	private int gapStart;
+	private int gapEnd;
+	private int count = 0;
+
+	/**
+	 * Creates an empty vector.
+	 */
+	public GapVector() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty vector, with room for a given number of elements.
+	 * @param initialCapacity The number of elements that can be stored
+	 * before the vector needs to grow.
+	 */
+	public GapVector(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException(
+					"Negative capacity: " + initialCapacity);
+		data = new Object[initialCapacity];
+		gapStart = 0;
+		gapEnd = initialCapacity;
+	}
+
+	// the position in the array of the element at an index.
+	private int physical(int index) {
+		return index < gapStart ? index : index + (gapEnd - gapStart);
+	}
+
+	// move the gap so that it starts at the given index.
+	private void moveGap(int index) {
+		if (index < gapStart) {
+			int length = gapStart - index;
+			System.arraycopy(data, index, data, gapEnd - length, length);
+			clear(index, Math.min(gapStart, gapEnd - length));
+		} else if (index > gapStart) {
+			int length = index - gapStart;
+			System.arraycopy(data, gapEnd, data, gapStart, length);
+			clear(Math.max(gapEnd, gapStart + length), gapEnd + length);
+		}
+		gapEnd += index - gapStart;
+		gapStart = index;
+	}
+
+	// release the references left in the gap.
+	private void clear(int from, int to) {
+		for (int i = from; i < to; i++)
+			data[i] = null;
+	}
+
+	// grow the array when the gap is empty, keeping the gap at the same
+	// index.
+	private void ensureSpaceAvailable() {
+		if (gapStart < gapEnd)
+			return;
+		int size = Growth.grow(data.length, count + 1,
+		                       Growth.DEFAULT_FACTOR, 0);
+		Object[] novo = new Object[size];
+		int tail = count - gapStart;
+		System.arraycopy(data, 0, novo, 0, gapStart);
+		System.arraycopy(data, gapEnd, novo, size - tail, tail);
+		data = novo;
+		gapEnd = size - tail;
+	}
+
+	/**
+	 * Inserts a new element to the vector at the specified index.
+	 * The index must be between 0 and the number of elements already
+	 * stored.
+	 * @param index The index to insert the new value.
+	 * @param value The value to be stored.
+	 */
+	public void insert(int index, T value) {
+		if (index < 0 || index > count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		moveGap(index);
+		ensureSpaceAvailable();
+		data[gapStart++] = value;
+		count++;
+	}
+
+	/**
+	 * Query the number of elements stored.
+	 * @return The current number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Remove the element at the given index, if its between 0 and
+	 * the number of elements stored.
+	 * @param index The index of the element to be removed.
+	 */
+	public void remove(int index) {
+		validateIndex(index);
+		moveGap(index);
+		data[gapEnd++] = null;
+		count--;
+	}
+
+	/**
+	 * Append a value to the end of the data.
+	 * @param value The value to be stored.
+	 */
+	public void append(T value) {
+		insert(count, value);
+	}
+
+	private void validateIndex(int index) {
+		if (index < 0 || index >= count)
+			throw new ArrayIndexOutOfBoundsException(index);
+	}
+
+	/**
+	 * Returns an element stored at a given index.
+	 * @param index The index of the element to be retrieved.
+	 * @return The element at the given index.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		validateIndex(index);
+		return (T)data[physical(index)];
+	}
+
+	/**
+	 * Set an element of the vector at a given index to the given value.
+	 * @param index The index of the element to be changed.
+	 * @param value The new value of the element.
+	 */
+	public void set(int index, T value) {
+		validateIndex(index);
+		data[physical(index)] = value;
+	}
+
+	/**
+	 * Returns the last element of the vector.
+	 * @return The last element of the vector.
+	 */
+	public T last() {
+		if (count > 0)
+			return get(count - 1);
+		throw new IllegalStateException("Vector is empty.");
+	}
+
+	/**
+	 * Check if there are elements in the Vector.
+	 * @return True if there are no elements stored, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Return an iterator for the underlying vector. Unlike the iterator of
+	 * Vector, after remove() the next call to next() returns the element
+	 * that followed the removed one.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new GapVectorIterator();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * Computes the new capacity of the arrays of the growable containers.
+ * Growing by a constant factor makes appends amortized O(1), as the
+ * elements copied by all resizes are a fraction of the elements stored.
+ * An optional cap on the growth step bounds the unused space of very
+ * large arrays, at the cost of making appends past the cap linear.
+ */
+final class Growth {
+
+	/**
+	 * The factor used when no growth policy is given.
+	 */
+	static final double DEFAULT_FACTOR = 2.0;
+
+	// some virtual machines cannot allocate arrays this close to the
+	// limit of an int.
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+	private Growth() {
+	}
+
+	/**
+	 * Checks the parameters of a growth policy.
+	 * @param factor The factor applied to the capacity on each growth.
+	 * @param maxStep The maximum number of elements added on each growth,
+	 * or 0 for no limit.
+	 */
+	static void validate(double factor, int maxStep) {
+		if (!(factor > 1))
+			throw new IllegalArgumentException(
+					"Growth factor must be greater than 1.");
+		if (maxStep < 0)
+			throw new IllegalArgumentException(
+					"Maximum growth step cannot be negative.");
+	}
+
+	/**
+	 * Computes the capacity of an array that has to grow.
+	 * @param current The current capacity.
+	 * @param needed The minimum capacity needed.
+	 * @param factor The factor applied to the current capacity.
+	 * @param maxStep The maximum number of elements added, or 0 for no
+	 * limit.
+	 * @return The new capacity, at least the needed one.
+	 */
+	static int grow(int current, int needed, double factor, int maxStep) {
+		if (needed < 0 || needed > MAX_ARRAY)
+			throw new OutOfMemoryError("Required array size too large.");
+		long size = (long)(current * factor);
+		if (size <= current)
+			size = current + 1;
+		if (maxStep > 0)
+			size = Math.min(size, (long)current + maxStep);
+		return (int)Math.min(Math.max(size, needed), MAX_ARRAY);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hash functions shared by the hash table implementations.
+ */
+final class Hashing {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private Hashing() {
+	}
+
+	/**
+	 * Draws a new random seed to be used by a hash table.
+	 * @return A random 64-bit seed.
+	 */
+	static long newSeed() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+
+	/**
+	 * Mixes the bits of a 64-bit value, so that every bit of the input
+	 * affects every bit of the output (SplitMix64 finalizer).
+	 * @param z The value to be mixed.
+	 * @return The mixed value.
+	 */
+	static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Computes a 64-bit hash for a key, using the given seed.
+	 * @param key The key to be hashed.
+	 * @param seed The seed of the hash function.
+	 * @return The 64-bit hash of the key.
+	 */
+	static long hash(Object key, long seed) {
+		return mix64(seed + key.hashCode() * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Computes a 64-bit hash for a sequence of bytes stored in a buffer.
+	 * @param buffer The buffer holding the bytes.
+	 * @param offset The position of the first byte.
+	 * @param length The number of bytes to hash.
+	 * @param seed The seed of the hash function.
+	 * @return The 64-bit hash of the bytes.
+	 */
+	static long hash(java.nio.ByteBuffer buffer, int offset, int length,
+	                 long seed)
+	{
+		long h = seed + length;
+		int i = 0;
+		for (; i + 8 <= length; i += 8)
+			h = mix64(h + buffer.getLong(offset + i) * GOLDEN_GAMMA);
+		for (; i < length; i++)
+			h = mix64(h + buffer.get(offset + i) * GOLDEN_GAMMA);
+		return h;
+	}
+
+	/**
+	 * Derives the i-th hash of a family of hashes from a single 64-bit
+	 * hash, using double hashing (h1 + i * h2) on both halves of it.
+	 * @param hash The 64-bit hash.
+	 * @param i The index of the hash in the family.
+	 * @return A non-negative 31-bit hash.
+	 */
+	static int nth(long hash, int i) {
+		int h1 = (int)hash;
+		int h2 = (int)(hash >>> 32) | 1;
+		return (h1 + i * h2) & 0x7FFFFFFF;
+	}
+
+	/**
+	 * Maps a 31-bit hash to the range [0, n) with a multiplication and a
+	 * shift (Lemire's fast range reduction), instead of a division. It
+	 * uses the high bits of the hash, so the hash must be well mixed.
+	 * @param hash A non-negative 31-bit hash.
+	 * @param n The size of the range.
+	 * @return A value in the range [0, n).
+	 */
+	static int reduce(int hash, int n) {
+		return (int)(((long)hash * n) >>> 31);
+	}
+}
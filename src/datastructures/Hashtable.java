@@ -9,54 +9,69 @@
 
 package datastructures;
 
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
 public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	
 	private class HashKeyIterator implements java.util.Iterator<K> {
-		int current = 0;
-		int index = -1;
-		
+		int index = advance(0);
+
+		// find the first non-empty slot, starting at the given one.
+		private int advance(int from) {
+			while (from < table.length && table[from] == null)
+				from++;
+			return from;
+		}
+
 		@SuppressWarnings("unchecked")
 		@Override
 		public K next() {
-			for (index += 1; index < table.length; index++) {
-				if (table[index] != null) {
-					current++;
-					return ((HashEntry)table[index]).key;
-				}
-			}
-			return null;
+			if (!hasNext())
+				throw new NoSuchElementException();
+			K key = ((HashEntry)table[index]).key;
+			index = advance(index + 1);
+			return key;
 		}
 		@Override
 		public boolean hasNext() {
-			return current < size();
+			return index < table.length;
 		}
 	}
 
-	private static <K> int[] generateHashes(K key, int hashCount) {
-		int[] hs = new int[hashCount];
-		java.util.Random rand = new java.util.Random();
-		rand.setSeed(key.hashCode());
-		for (int i = 0; i < hashCount; ++i)
-			hs[i] = Math.abs(rand.nextInt());
-		return hs;
-	}
-
 	private class HashEntry {
 		K key;
 		V value;
-		int[] hashes;
+		long hash;
 		
-		public HashEntry(K key, V value, int hashCount) {
+		public HashEntry(K key, V value, long hash) {
 			this.key = key;
 			this.value = value;
-			this.hashes = generateHashes(key, hashCount);
+			this.hash = hash;
 		}
 	}
 	
+	private static final int MIGRATION_STEP = 8;
+	private static final int STASH_SIZE = 4;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int GROUP = 16;
+
 	private final int MAX_TRIES;
 	private int hashCount;
+	private int bucketSize;
 	private Object[] table;
+	private int buckets;
 	private int elementCount;
+	private long seed;
+	private boolean incremental;
+	private Object[] previous;
+	private long previousSeed;
+	private int migrated;
+	// scratch space of getAll(), for a group of keys.
+	private final long[] batchHashes = new long[GROUP];
+	private final Object[] batchEntries = new Object[GROUP];
 
 	/**
 	 * Create a new hash table using Cuckoo Hashing, with two hashes.
@@ -71,16 +86,157 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	 * @param hashCount The number of hashes to use.
 	 */
 	public Hashtable(int hashCount) {
+		this(hashCount, 1);
+	}
+
+	/**
+	 * Create a new hash table using bucketized Cuckoo Hashing, with a
+	 * given number of hashes, where each hash selects a bucket of
+	 * bucketSize slots stored contiguously. A bucket size of 4 to 8 keeps
+	 * each bucket within a cache line, and allows the table to reach a
+	 * load factor above 90% before it needs to grow.
+	 * @param hashCount The number of hashes to use.
+	 * @param bucketSize The number of slots in each bucket.
+	 */
+	public Hashtable(int hashCount, int bucketSize) {
 		if (hashCount < 2)
 			hashCount = 2;
-		MAX_TRIES = hashCount*5;
+		if (bucketSize < 1)
+			bucketSize = 1;
+		MAX_TRIES = hashCount*5*bucketSize*bucketSize;
 		this.hashCount = hashCount;
+		this.bucketSize = bucketSize;
 		this.elementCount = 0;
-		table = new Object[5];
+		this.seed = Hashing.newSeed();
+		this.buckets = 5;
+		table = newTable();
+	}
+
+	/**
+	 * Enable, or disable, incremental resizing. When enabled, a table
+	 * that needs to grow is replaced by a new one, and its entries are
+	 * moved to the new table a few slots at a time, on every put and
+	 * remove, instead of all at once. While entries are being moved,
+	 * lookups search both tables.
+	 * @param enabled True to resize incrementally, false to rebuild the
+	 * whole table when an insertion fails.
+	 */
+	public void incrementalResize(boolean enabled) {
+		if (!enabled)
+			migrate(Integer.MAX_VALUE);
+		incremental = enabled;
 	}
 
 	private int mod(int h) {
-		return h % table.length;
+		return Hashing.reduce(h, buckets);
+	}
+
+	// derive all the hashes of a key from a single, seeded, 64-bit hash.
+	private long hash(Object key) {
+		return Hashing.hash(key, seed);
+	}
+
+	// compute the bucket selected by the i-th hash.
+	private int position(long hash, int i) {
+		return mod(Hashing.nth(hash, i));
+	}
+
+	// find the slot holding the given key, or -1 if it is not stored.
+	private int find(Object key) {
+		return find(table, buckets, seed, key);
+	}
+
+	// find the slot holding a key in the table being migrated.
+	private int findPrevious(Object key) {
+		return find(previous, (previous.length - STASH_SIZE) / bucketSize,
+		            previousSeed, key);
+	}
+
+	// find the slot holding a key in a table hashed with the given seed.
+	private int find(Object[] table, int buckets, long seed, Object key) {
+		return findHashed(table, buckets, Hashing.hash(key, seed), key);
+	}
+
+	// find the slot holding a key, given its hash, in its buckets or in
+	// the stash.
+	@SuppressWarnings("unchecked")
+	private int findHashed(Object[] table, int buckets, long hash,
+	                       Object key)
+	{
+		for (int h = 0; h < hashCount; h++) {
+			int first = Hashing.reduce(Hashing.nth(hash, h), buckets)
+			            * bucketSize;
+			for (int s = first; s < first + bucketSize; s++) {
+				HashEntry entry = (HashEntry)table[s];
+				if (entry != null && entry.hash == hash
+						&& entry.key.equals(key))
+					return s;
+			}
+		}
+		for (int s = buckets * bucketSize; s < table.length; s++) {
+			HashEntry entry = (HashEntry)table[s];
+			if (entry != null && entry.hash == hash && entry.key.equals(key))
+				return s;
+		}
+		return -1;
+	}
+
+	/*
+	 * Tables have STASH_SIZE slots after the buckets, the stash, that
+	 * holds entries that could not be placed in their buckets, so a rare
+	 * insertion failure does not grow the whole table.
+	 */
+	private Object[] newTable() {
+		return new Object[buckets * bucketSize + STASH_SIZE];
+	}
+
+	// find a free slot in the stash, or -1.
+	private int freeStashSlot() {
+		for (int s = buckets * bucketSize; s < table.length; s++)
+			if (table[s] == null)
+				return s;
+		return -1;
+	}
+
+	// move the stashed entries to their buckets, when they have room.
+	@SuppressWarnings("unchecked")
+	private void unstash() {
+		for (int s = buckets * bucketSize; s < table.length; s++) {
+			HashEntry entry = (HashEntry)table[s];
+			if (entry != null) {
+				int free = freeSlot(entry);
+				if (free >= 0) {
+					table[free] = entry;
+					table[s] = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queries the number of entries in the stash, the small area that
+	 * holds the entries that could not be placed in their buckets. The
+	 * table only grows when an entry cannot be placed and the stash is
+	 * full.
+	 * @return The number of stashed entries, from 0 to 4.
+	 */
+	public int stashOccupancy() {
+		int count = 0;
+		for (int s = buckets * bucketSize; s < table.length; s++)
+			if (table[s] != null)
+				count++;
+		return count;
+	}
+
+	// find a free slot in one of the buckets of an entry, or -1.
+	private int freeSlot(HashEntry entry) {
+		for (int h = 0; h < hashCount; h++) {
+			int first = position(entry.hash, h) * bucketSize;
+			for (int s = first; s < first + bucketSize; s++)
+				if (table[s] == null)
+					return s;
+		}
+		return -1;
 	}
 
 	private int[] createBacktrack() {
@@ -99,8 +255,13 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	public void put(K key, V value)
 			throws DuplicateKeyException
 	{
-		HashEntry entry = new HashEntry(key, value, hashCount);
-		insert(entry, createBacktrack(), 0, mod(entry.hashes[0]));
+		if (incremental)
+			migrate(MIGRATION_STEP);
+		if (find(key) >= 0
+				|| (previous != null && findPrevious(key) >= 0))
+			throw new DuplicateKeyException("Duplicate key:" + key);
+		HashEntry entry = new HashEntry(key, value, hash(key));
+		insert(entry, createBacktrack(), 0, position(entry.hash, 0));
 	}
 
 	private int count(int[] backtrack, int pos) {
@@ -112,58 +273,171 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	}
 
 	@SuppressWarnings("unchecked")
-	private void insert(HashEntry entry, int[] backtrack, int i, int pos)
-			throws DuplicateKeyException
+	private void insert(HashEntry entry, int[] backtrack, int i, int bucket)
 	{
-		if (i >= MAX_TRIES)
-			rehash(entry);
-		else
-		if (table[pos] == null) {
-			table[pos] = entry;
+		if (i >= MAX_TRIES) {
+			grow(entry);
+			return;
+		}
+		int free = freeSlot(entry);
+		if (free >= 0) {
+			table[free] = entry;
 			elementCount++;
 			return;
+		}
+		// every bucket is full: kick out an entry of the current bucket,
+		// choosing a different slot of the bucket on each step.
+		int pos = bucket * bucketSize + i % bucketSize;
+		HashEntry cuckoo = (HashEntry)table[pos];
+		if (count(backtrack, pos) > hashCount) {
+			grow(entry);
 		} else {
-			if (pos == 0 && ((HashEntry)table[pos]).key.equals(entry.key))
-				throw new DuplicateKeyException("Duplicate key:" + entry.key);
-			else {
-				HashEntry cuckoo = (HashEntry)table[pos];
-				if (count(backtrack, pos) > hashCount) {
-					rehash(entry);
-				} else {
-					table[pos] = entry;
-					backtrack[i] = pos;
-					for (int h = 0; h < hashCount; h++) {
-						if (mod(cuckoo.hashes[h]) == pos) {
-							int nextpos = mod(cuckoo.hashes[(h+1) % hashCount]);
-							insert(cuckoo, backtrack, i+1, nextpos);
-							break;
-						}
-					}
+			table[pos] = entry;
+			backtrack[i] = pos;
+			for (int h = 0; h < hashCount; h++) {
+				if (position(cuckoo.hash, h) == bucket) {
+					int next = position(cuckoo.hash, (h+1) % hashCount);
+					insert(cuckoo, backtrack, i+1, next);
+					break;
 				}
 			}
 		}
 	}
 
-	
-	/**
-	 * Rehashes the table. It does not control for key attacks, so, with the
-	 * correct keys it could enter an infinite loop.
+	/*
+	 * Store an entry that could not be inserted in the stash or, if the
+	 * stash is full, grow the table. When resizing incrementally, the
+	 * current table is kept as the previous one, and its entries are
+	 * moved later, by migrate(). If a migration is still running, the
+	 * table is rehashed at once.
 	 */
+	private void grow(HashEntry entry) {
+		int stash = freeStashSlot();
+		if (stash >= 0) {
+			table[stash] = entry;
+			elementCount++;
+			return;
+		}
+		if (!incremental || previous != null) {
+			rehash(entry);
+			return;
+		}
+		int grown = grownBuckets();
+		previous = table;
+		previousSeed = seed;
+		migrated = 0;
+		buckets = grown;
+		table = newTable();
+		seed = Hashing.newSeed();
+		entry.hash = hash(entry.key);
+		insert(entry, createBacktrack(), 0, position(entry.hash, 0));
+	}
+
+	// move the entries of up to the given number of slots of the
+	// previous table to the current one.
 	@SuppressWarnings("unchecked")
+	private void migrate(int slots) {
+		while (previous != null && slots-- > 0) {
+			if (migrated == previous.length) {
+				previous = null;
+				return;
+			}
+			HashEntry e = (HashEntry)previous[migrated];
+			previous[migrated++] = null;
+			if (e != null) {
+				elementCount--;
+				e.hash = hash(e.key);
+				insert(e, createBacktrack(), 0, position(e.hash, 0));
+			}
+		}
+	}
+
+	// the largest number of buckets whose slots, and the stash, fit in
+	// MAX_CAPACITY slots.
+	private int maxBuckets() {
+		return (MAX_CAPACITY - STASH_SIZE) / bucketSize;
+	}
+
+	// the number of buckets of a grown table, failing before any change
+	// when the table cannot grow.
+	private int grownBuckets() {
+		if (buckets >= maxBuckets())
+			throw new IllegalStateException(
+					"Table is full, with " + elementCount + " elements.");
+		return (int)Math.min(buckets * 2L, maxBuckets());
+	}
+
+	/**
+	 * Rehashes the table. A new seed is drawn for the hash function every
+	 * time the table is rehashed, so a set of keys that fails to be placed
+	 * with one seed will, with high probability, be placed with the next
+	 * one. Only keys sharing the same hashCode() cannot be separated.
+	 */
 	private void rehash(HashEntry entry)
-				throws DuplicateKeyException
+	{
+		resize(grownBuckets());
+		entry.hash = hash(entry.key);
+		insert(entry,createBacktrack(),0,position(entry.hash, 0));
+	}
+
+	// rebuild the table, and the one being migrated, with a new number
+	// of buckets.
+	@SuppressWarnings("unchecked")
+	private void resize(int newBuckets)
 	{
 		int count = elementCount;
 		Object[] oldtable = table;
-		table = new Object[oldtable.length * 2];
+		Object[] pending = previous;
+		previous = null;
+		buckets = newBuckets;
+		table = newTable();
+		seed = Hashing.newSeed();
 		for (Object o : oldtable) {
 			if (o != null) {
 				HashEntry e = (HashEntry)o;
-				insert(e,createBacktrack(),0,mod(e.hashes[0]));
+				e.hash = hash(e.key);
+				insert(e,createBacktrack(),0,position(e.hash, 0));
+			}
+		}
+		if (pending != null) {
+			for (Object o : pending) {
+				if (o != null) {
+					HashEntry e = (HashEntry)o;
+					e.hash = hash(e.key);
+					insert(e,createBacktrack(),0,position(e.hash, 0));
+				}
 			}
 		}
 		elementCount = count;
-		insert(entry,createBacktrack(),0,mod(entry.hashes[0]));
+	}
+
+	/*
+	 * A load factor that a large table of each shape reaches before an
+	 * insertion fails, with the limited number of evictions tried: above
+	 * 85% with buckets of 4 slots or more, but only about 20% for two
+	 * hashes with single-slot buckets.
+	 */
+	private double expectedLoad() {
+		if (bucketSize >= 4)
+			return 0.85;
+		return hashCount * bucketSize >= 3 ? 0.5 : 0.2;
+	}
+
+	/**
+	 * Insert a number of new key-value pairs into the table. The table is
+	 * grown once, before the insertions, to hold every new pair, instead
+	 * of growing repeatedly while they are inserted.
+	 * @param keys The keys to the values.
+	 * @param values The values associated with each key.
+	 * @throws DuplicateKeyException If a key already exists.
+	 */
+	public void putAll(K[] keys, V[] values) throws DuplicateKeyException {
+		long needed = (long)Math.ceil((elementCount + keys.length)
+		                              / (expectedLoad() * bucketSize));
+		if (needed > buckets)
+			resize((int)Math.min(needed, maxBuckets()));
+		for (int i = 0; i < keys.length; i++)
+			put(keys[i], values[i]);
 	}
 
 
@@ -173,19 +447,80 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	 * @param key The key to search for.
 	 * @return The value associated with the key, or null.
 	 */
+	@SuppressWarnings("unchecked")
 	public V get(K key) {
-		int[] hashes = generateHashes(key, hashCount);
-		for (int h : hashes) {
-			if (table[mod(h)] != null) {
-				@SuppressWarnings("unchecked")
-				HashEntry entry = (HashEntry)table[mod(h)];
-				if (entry.key.equals(key))
-					return entry.value;
-			}
+		int pos = find(key);
+		if (pos >= 0)
+			return ((HashEntry)table[pos]).value;
+		if (previous != null) {
+			pos = findPrevious(key);
+			if (pos >= 0)
+				return ((HashEntry)previous[pos]).value;
 		}
 		return null;
 	}
 
+	/**
+	 * Look up a batch of keys, a group of 16 keys at a time. Each step
+	 * of the lookups of a group is done for every key of the group before
+	 * the next one: the keys are hashed, the entries at the first slot of
+	 * their first buckets are loaded, then the hashes stored in those
+	 * entries, and only then the keys are compared. The loads of a step
+	 * do not depend on each other, so their cache misses are waited for
+	 * together. A key not found at that slot is searched in every one of
+	 * its buckets, and while a resize is running the keys are looked up
+	 * one at a time. No memory is allocated, so a table must not be used
+	 * by more than one thread calling getAll() at a time.
+	 * @param keys The keys to search for.
+	 * @param out The array that receives, at the index of each key, its
+	 * value, or null if the key is not found.
+	 */
+	@SuppressWarnings("unchecked")
+	public void getAll(K[] keys, V[] out) {
+		if (previous != null) {
+			for (int i = 0; i < keys.length; i++)
+				out[i] = get(keys[i]);
+			return;
+		}
+		long[] hashes = batchHashes;
+		Object[] entries = batchEntries;
+		for (int start = 0; start < keys.length; start += GROUP) {
+			int n = Math.min(GROUP, keys.length - start);
+			for (int j = 0; j < n; j++)
+				hashes[j] = hash(keys[start + j]);
+			for (int j = 0; j < n; j++)
+				entries[j] = table[position(hashes[j], 0) * bucketSize];
+			for (int j = 0; j < n; j++) {
+				HashEntry entry = (HashEntry)entries[j];
+				if (entry != null && entry.hash != hashes[j])
+					entries[j] = null;
+			}
+			for (int j = 0; j < n; j++) {
+				HashEntry entry = (HashEntry)entries[j];
+				if (entry != null && entry.key.equals(keys[start + j])) {
+					out[start + j] = entry.value;
+				} else {
+					int pos = findHashed(table, buckets, hashes[j],
+					                     keys[start + j]);
+					out[start + j] = pos < 0 ? null
+					                         : ((HashEntry)table[pos]).value;
+				}
+				entries[j] = null;
+			}
+		}
+	}
+
+	/**
+	 * Queries if a key is stored in the table, including in the table
+	 * of an incremental resize still running.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(K key) {
+		return find(key) >= 0
+		       || (previous != null && findPrevious(key) >= 0);
+	}
+
 	/**
 	 * Remove
 	 * @param key The key to search for.
@@ -208,19 +543,39 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 	 * @return The value associated with the key, or null.
 	 */
 	public void remove(K key) {
-		int[] hashes = generateHashes(key, hashCount);
-		for (int h : hashes) {
-			if (table[mod(h)] != null) {
-				@SuppressWarnings("unchecked")
-				HashEntry entry = (HashEntry)table[mod(h)];
-				if (entry.key.equals(key)) {
-					table[mod(h)] = null;
-					return;
-				}
+		if (incremental)
+			migrate(MIGRATION_STEP);
+		int pos = find(key);
+		if (pos >= 0) {
+			table[pos] = null;
+			elementCount--;
+			unstash();
+		} else if (previous != null) {
+			pos = findPrevious(key);
+			if (pos >= 0) {
+				previous[pos] = null;
+				elementCount--;
 			}
 		}
 	}
 
+	/**
+	 * Call an action for every key-value pair of the table, including
+	 * the ones of an incremental resize still running, without moving
+	 * any of them.
+	 * @param action The action receiving each key and value.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachEntry(BiConsumer<? super K, ? super V> action) {
+		for (Object o : table)
+			if (o != null)
+				action.accept(((HashEntry)o).key, ((HashEntry)o).value);
+		if (previous != null)
+			for (Object o : previous)
+				if (o != null)
+					action.accept(((HashEntry)o).key, ((HashEntry)o).value);
+	}
+
 	
 	/**
 	 * Queries the current load factor do the table.
@@ -239,8 +594,50 @@ public class Hashtable<K, V> implements java.lang.Iterable<K> {
 		return elementCount;
 	}
 
+	/**
+	 * Returns an iterator over the keys of the table. Any incremental
+	 * resize still running is completed first.
+	 */
 	@Override
 	public java.util.Iterator<K> iterator() {
+		migrate(Integer.MAX_VALUE);
 		return (java.util.Iterator<K>)(new HashKeyIterator());
 	}
+
+	/**
+	 * Returns a Spliterator over the keys of the table, that splits the
+	 * slots of the table in halves, so the keys can be processed by a
+	 * parallel stream. Any incremental resize still running is completed
+	 * first.
+	 */
+	@Override
+	public Spliterator<K> spliterator() {
+		migrate(Integer.MAX_VALUE);
+		return new SlotSpliterator<>(table, elementCount,
+				new Function<Object, K>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public K apply(Object slot) {
+						return ((HashEntry)slot).key;
+					}
+				});
+	}
+
+	/**
+	 * Returns a Spliterator over the key-value pairs of the table, that
+	 * splits the slots of the table in halves. Any incremental resize
+	 * still running is completed first.
+	 */
+	public Spliterator<KeyValue<K, V>> entrySpliterator() {
+		migrate(Integer.MAX_VALUE);
+		return new SlotSpliterator<>(table, elementCount,
+				new Function<Object, KeyValue<K, V>>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public KeyValue<K, V> apply(Object slot) {
+						HashEntry entry = (HashEntry)slot;
+						return new KeyValue<>(entry.key, entry.value);
+					}
+				});
+	}
 }
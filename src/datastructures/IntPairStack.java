@@ -0,0 +1,81 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * Implements a LIFO protocol for pairs of int values, packed in a single
+ * long, so no Pair object is created for each element. The pair is
+ * returned packed, and its values are read with first() and second().
+ * Once the stack has grown to its largest size, push and pop allocate
+ * nothing.
+ */
+public class IntPairStack {
+	private LongStack data = new LongStack();
+
+	/**
+	 * Add a new pair to the stack.
+	 * @param first The first value of the pair.
+	 * @param second The second value of the pair.
+	 */
+	public void push(int first, int second) {
+		data.push(((long)first << 32) | (second & 0xFFFFFFFFL));
+	}
+
+	/**
+	 * Remove the pair on the top of the stack, returning it.
+	 * @return The pair at the top of the stack, packed in a long.
+	 */
+	public long pop() {
+		return data.pop();
+	}
+
+	/**
+	 * Retrieve the pair at the top of the stack, without removing it
+	 * from the stack.
+	 * @return The pair at the top of the stack, packed in a long.
+	 */
+	public long peek() {
+		return data.peek();
+	}
+
+	/**
+	 * Extract the first value of a packed pair.
+	 * @param pair A pair returned by pop() or peek().
+	 * @return The first value of the pair.
+	 */
+	public static int first(long pair) {
+		return (int)(pair >> 32);
+	}
+
+	/**
+	 * Extract the second value of a packed pair.
+	 * @param pair A pair returned by pop() or peek().
+	 * @return The second value of the pair.
+	 */
+	public static int second(long pair) {
+		return (int)pair;
+	}
+
+	/**
+	 * Check if the stack is empty.
+	 * @return True if there's no element on the stack, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return data.isEmpty();
+	}
+
+	/**
+	 * Return the number of pairs on the stack currently stored.
+	 * @return The number of pairs stored.
+	 */
+	public int size() {
+		return data.size();
+	}
+}
@@ -173,39 +173,78 @@ public class LinkedList<T> implements Iterable<T>, Sortable<T> {
 	}
 
 	/**
-	 * Sort the elements in the container using insertion sort.
+	 * Sort the elements in the container using a bottom-up natural merge
+	 * sort. The ascending runs of the list are merged as in a binary
+	 * counter: a run is merged with the pending run of the same level, as
+	 * many levels up as needed, so recent runs are merged while still in
+	 * cache. The nodes are relinked, so only the 32 levels are allocated,
+	 * and a sorted list takes a single pass. The sort is stable.
 	 * @param cmp The comparator to be used to sort the elements.
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public void sort(Comparator<T> cmp) {
 		if (head == null) return;
-		Node novo = head.next;
-		while (novo != null) {
-			Node current = novo.previous, next = novo.next;
-			while (current!=null && cmp.compare(current.data, novo.data) > 0)
-				current = current.previous;
-			// swap nodes
-			swapNodes(novo, current);
-			novo = next;
+		// while sorting, the runs are only linked by the next references,
+		// and terminated by null. Higher levels hold earlier elements.
+		Object[] pending = new Object[32];
+		Node p = head;
+		while (p != null) {
+			Node run = p, end = runEnd(run, cmp);
+			p = end.next;
+			end.next = null;
+			int level = 0;
+			for (; pending[level] != null; level++) {
+				run = merge((Node)pending[level], run, cmp);
+				pending[level] = null;
+			}
+			pending[level] = run;
+		}
+		Node list = null;
+		for (Object run : pending)
+			if (run != null)
+				list = list == null ? (Node)run : merge((Node)run, list, cmp);
+		// restore the previous references.
+		Node previous = null;
+		for (Node n = list; n != null; n = n.next) {
+			n.previous = previous;
+			previous = n;
 		}
+		head = list;
+		tail = previous;
+	}
+
+	// the last node of the ascending run that starts at a node.
+	private Node runEnd(Node start, Comparator<T> cmp) {
+		Node end = start;
+		while (end.next != null && cmp.compare(end.data, end.next.data) <= 0)
+			end = end.next;
+		return end;
 	}
 
-	private void swapNodes(Node novo, Node current) {
-		if (current != null && current.next == novo)
-			return;
-		Node previous = novo.previous;
-		Node next = novo.next;
-		previous.next = next;
-		// remove novo
-		if (novo == tail)
-			tail = previous;
-		novo.remove();
-		// Insere depois do current.
-		if (current != null) {
-			novo.insert(current,current.next);
+	// merge two runs terminated by null, returning the first node.
+	private Node merge(Node a, Node b, Comparator<T> cmp) {
+		Node first;
+		if (cmp.compare(b.data, a.data) < 0) {
+			first = b;
+			b = b.next;
 		} else {
-			novo.insert(null,head);
-			head = novo;
+			first = a;
+			a = a.next;
+		}
+		Node last = first;
+		while (a != null && b != null) {
+			if (cmp.compare(b.data, a.data) < 0) {
+				last.next = b;
+				last = b;
+				b = b.next;
+			} else {
+				last.next = a;
+				last = a;
+				a = a.next;
+			}
 		}
+		last.next = a != null ? a : b;
+		return first;
 	}
 }
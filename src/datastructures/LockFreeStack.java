@@ -0,0 +1,154 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Implements a LIFO protocol for data, shared by many threads, that
+ * uses no locks (a Treiber stack).</p>
+ * <p>The elements are stored in a linked list, and push and pop change
+ * its top with a compare and set. When the compare and set fails, there
+ * is contention, and the thread tries an elimination array instead: a
+ * push leaves its node in a random slot for a short time, and a pop that
+ * finds a node in the slot it picks takes it. A push and a pop that meet
+ * cancel each other without touching the top, so under contention many
+ * pairs complete in parallel.</p>
+ */
+public class LockFreeStack<T> {
+
+	private static final class Node<T> {
+		final T value;
+		Node<T> next;
+
+		Node(T value) {
+			this.value = value;
+		}
+	}
+
+	// marks a slot whose node was taken by a pop.
+	private static final Object TAKEN = new Object();
+	// the number of times a push looks for a pop in the slot.
+	private static final int WAIT = 64;
+
+	private final AtomicReference<Node<T>> top = new AtomicReference<>();
+	private final AtomicReferenceArray<Object> eliminations;
+
+	/**
+	 * Create an empty stack, with an elimination array sized for the
+	 * number of processors.
+	 */
+	public LockFreeStack() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	/**
+	 * Create an empty stack, with a given elimination array size.
+	 * @param slots The number of slots where push and pop can meet, or 0
+	 * to disable elimination.
+	 */
+	public LockFreeStack(int slots) {
+		if (slots < 0)
+			throw new IllegalArgumentException("Invalid slots: " + slots);
+		eliminations = new AtomicReferenceArray<>(slots);
+	}
+
+	/**
+	 * Add a new value to the stack. Null values are not allowed.
+	 * @param value The value to be on the top of the stack.
+	 */
+	public void push(T value) {
+		if (value == null)
+			throw new NullPointerException();
+		Node<T> node = new Node<>(value);
+		while (true) {
+			Node<T> current = top.get();
+			node.next = current;
+			if (top.compareAndSet(current, node))
+				return;
+			if (eliminatePush(node))
+				return;
+		}
+	}
+
+	/**
+	 * Remove the element on the top of the stack, returning it.
+	 * @return The element at the top of the stack, or null if it's empty.
+	 */
+	public T pop() {
+		while (true) {
+			Node<T> current = top.get();
+			if (current == null)
+				return null;
+			if (top.compareAndSet(current, current.next))
+				return current.value;
+			Node<T> node = eliminatePop();
+			if (node != null)
+				return node.value;
+		}
+	}
+
+	// offer a node in a random slot, for a while, returning true if a pop
+	// took it.
+	private boolean eliminatePush(Node<T> node) {
+		int length = eliminations.length();
+		if (length == 0)
+			return false;
+		int slot = ThreadLocalRandom.current().nextInt(length);
+		if (!eliminations.compareAndSet(slot, null, node))
+			return false;
+		for (int i = 0; i < WAIT; i++) {
+			if (eliminations.get(slot) == TAKEN) {
+				eliminations.set(slot, null);
+				return true;
+			}
+		}
+		if (eliminations.compareAndSet(slot, node, null))
+			return false;
+		// a pop took the node after the wait.
+		eliminations.set(slot, null);
+		return true;
+	}
+
+	// take a node offered in a random slot, if there is one.
+	@SuppressWarnings("unchecked")
+	private Node<T> eliminatePop() {
+		int length = eliminations.length();
+		if (length == 0)
+			return null;
+		int slot = ThreadLocalRandom.current().nextInt(length);
+		Object offer = eliminations.get(slot);
+		if (offer == null || offer == TAKEN
+		    || !eliminations.compareAndSet(slot, offer, TAKEN))
+			return null;
+		return (Node<T>)offer;
+	}
+
+	/**
+	 * Retrieve the element at the top of the stack, without removing it
+	 * from the stack.
+	 * @return The element at the top of the stack, or null if it's empty.
+	 */
+	public T peek() {
+		Node<T> current = top.get();
+		return current == null ? null : current.value;
+	}
+
+	/**
+	 * Check if the stack is empty. As other threads may be changing the
+	 * stack, the value may be outdated.
+	 * @return True if there's no element on the stack, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return top.get() == null;
+	}
+}
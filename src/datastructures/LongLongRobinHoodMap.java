@@ -0,0 +1,244 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * <p>A Robin Hood hash map from long keys to long values.</p>
+ * <p>Keys, values and probe distances are stored in parallel arrays, so
+ * no object is allocated per entry, and no value is boxed. An empty slot
+ * is marked by the key 0, and the key 0 itself is stored apart from the
+ * table.</p>
+ */
+public class LongLongRobinHoodMap {
+
+	private static final long EMPTY = 0;
+	private static final double MAX_LOAD = 0.875;
+	private static final int GROUP = 16;
+
+	private long[] keys;
+	private long[] values;
+	private int[] distances;
+	private int mask;
+	private int count;
+	private int threshold;
+	private boolean hasEmptyKey;
+	private long emptyKeyValue;
+	// scratch space of getAll(), for a group of keys.
+	private final int[] batchHomes = new int[GROUP];
+	private final long[] batchFirst = new long[GROUP];
+
+	/**
+	 * Create a new, empty, map.
+	 */
+	public LongLongRobinHoodMap() {
+		this(16);
+	}
+
+	/**
+	 * Create a new map, with room for a given number of elements.
+	 * @param capacity The number of elements expected.
+	 */
+	public LongLongRobinHoodMap(int capacity) {
+		allocate(RobinHoodTables.capacityFor(capacity, MAX_LOAD));
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		distances = new int[capacity];
+		mask = capacity - 1;
+		threshold = (int)(capacity * MAX_LOAD);
+	}
+
+	private int home(long key) {
+		return (int)Hashing.mix64(key) & mask;
+	}
+
+	/**
+	 * Associate a value to a key, replacing the previous value if the key
+	 * is already stored.
+	 * @param key The key to the value.
+	 * @param value The value associated with the key.
+	 */
+	public void put(long key, long value) {
+		if (key == EMPTY) {
+			if (!hasEmptyKey)
+				count++;
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return;
+		}
+		if (count >= threshold)
+			rehash();
+		insert(key, value);
+	}
+
+	private void insert(long key, long value) {
+		int pos = home(key);
+		for (int dist = 0; ; dist++) {
+			long k = keys[pos];
+			if (k == EMPTY) {
+				keys[pos] = key;
+				values[pos] = value;
+				distances[pos] = dist;
+				count++;
+				return;
+			}
+			if (k == key) {
+				values[pos] = value;
+				return;
+			}
+			if (distances[pos] < dist) {
+				long v = values[pos];
+				int d = distances[pos];
+				keys[pos] = key;
+				values[pos] = value;
+				distances[pos] = dist;
+				key = k;
+				value = v;
+				dist = d;
+			}
+			pos = (pos + 1) & mask;
+		}
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		allocate(keys.length * 2);
+		count = hasEmptyKey ? 1 : 0;
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != EMPTY)
+				insert(oldKeys[i], oldValues[i]);
+	}
+
+	// find the slot of a key, or -1 if it is not stored.
+	private int find(long key) {
+		return find(key, home(key), 0);
+	}
+
+	// find the slot of a key, probing from a slot at a given distance
+	// from its home, or -1 if it is not stored.
+	private int find(long key, int pos, int dist) {
+		for (; ; dist++) {
+			long k = keys[pos];
+			if (k == key)
+				return pos;
+			if (k == EMPTY || distances[pos] < dist)
+				return -1;
+			pos = (pos + 1) & mask;
+		}
+	}
+
+	/**
+	 * Returns the value associated with a key.
+	 * @param key The key to search for.
+	 * @param missing The value to return if the key is not found.
+	 * @return The value associated with the key, or missing.
+	 */
+	public long get(long key, long missing) {
+		if (key == EMPTY)
+			return hasEmptyKey ? emptyKeyValue : missing;
+		int pos = find(key);
+		return pos < 0 ? missing : values[pos];
+	}
+
+	/**
+	 * Look up a batch of keys, a group of 16 keys at a time: the keys of
+	 * a group are hashed, then their home slots are loaded, and only then
+	 * compared, so the cache misses of the group are waited for together,
+	 * instead of one lookup at a time. A key not found at its home slot
+	 * is probed from the next one. No memory is allocated, so a map must
+	 * not be used by more than one thread calling getAll() at a time.
+	 * @param batch The keys to search for.
+	 * @param out The array that receives, at the index of each key, its
+	 * value.
+	 * @param missing The value stored for the keys that are not found.
+	 */
+	public void getAll(long[] batch, long[] out, long missing) {
+		int[] homes = batchHomes;
+		long[] first = batchFirst;
+		for (int start = 0; start < batch.length; start += GROUP) {
+			int n = Math.min(GROUP, batch.length - start);
+			for (int j = 0; j < n; j++)
+				homes[j] = home(batch[start + j]);
+			for (int j = 0; j < n; j++)
+				first[j] = keys[homes[j]];
+			for (int j = 0; j < n; j++) {
+				long key = batch[start + j];
+				if (key == EMPTY) {
+					out[start + j] = hasEmptyKey ? emptyKeyValue : missing;
+				} else if (first[j] == key) {
+					out[start + j] = values[homes[j]];
+				} else if (first[j] == EMPTY) {
+					out[start + j] = missing;
+				} else {
+					int pos = find(key, (homes[j] + 1) & mask, 1);
+					out[start + j] = pos < 0 ? missing : values[pos];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queries if a key is stored in the map.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(long key) {
+		if (key == EMPTY)
+			return hasEmptyKey;
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the map, shifting back
+	 * the entries that follow it in the probe sequence.
+	 * @param key The key to be removed.
+	 */
+	public void remove(long key) {
+		if (key == EMPTY) {
+			if (hasEmptyKey)
+				count--;
+			hasEmptyKey = false;
+			return;
+		}
+		int pos = find(key);
+		if (pos < 0)
+			return;
+		int next = (pos + 1) & mask;
+		while (keys[next] != EMPTY && distances[next] > 0) {
+			keys[pos] = keys[next];
+			values[pos] = values[next];
+			distances[pos] = distances[next] - 1;
+			pos = next;
+			next = (next + 1) & mask;
+		}
+		keys[pos] = EMPTY;
+		count--;
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the map.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Queries the current load factor do the table.
+	 * @return The ratio between the number of elements stored and the
+	 * number of slots of the table.
+	 */
+	public double loadFactor() {
+		return count / (1.0 * keys.length);
+	}
+}
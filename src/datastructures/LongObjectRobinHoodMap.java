@@ -0,0 +1,203 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * <p>A Robin Hood hash map from long keys to object values.</p>
+ * <p>Keys, values and probe distances are stored in parallel arrays, so
+ * no object is allocated per entry, and no key is boxed. An empty slot
+ * is marked by the key 0, and the key 0 itself is stored apart from the
+ * table.</p>
+ */
+public class LongObjectRobinHoodMap<V> {
+
+	private static final long EMPTY = 0;
+	private static final double MAX_LOAD = 0.875;
+
+	private long[] keys;
+	private Object[] values;
+	private int[] distances;
+	private int mask;
+	private int count;
+	private int threshold;
+	private boolean hasEmptyKey;
+	private V emptyKeyValue;
+
+	/**
+	 * Create a new, empty, map.
+	 */
+	public LongObjectRobinHoodMap() {
+		this(16);
+	}
+
+	/**
+	 * Create a new map, with room for a given number of elements.
+	 * @param capacity The number of elements expected.
+	 */
+	public LongObjectRobinHoodMap(int capacity) {
+		allocate(RobinHoodTables.capacityFor(capacity, MAX_LOAD));
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		distances = new int[capacity];
+		mask = capacity - 1;
+		threshold = (int)(capacity * MAX_LOAD);
+	}
+
+	private int home(long key) {
+		return (int)Hashing.mix64(key) & mask;
+	}
+
+	/**
+	 * Associate a value to a key, replacing the previous value if the key
+	 * is already stored.
+	 * @param key The key to the value.
+	 * @param value The value associated with the key.
+	 */
+	public void put(long key, V value) {
+		if (key == EMPTY) {
+			if (!hasEmptyKey)
+				count++;
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return;
+		}
+		if (count >= threshold)
+			rehash();
+		insert(key, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void insert(long key, V value) {
+		int pos = home(key);
+		for (int dist = 0; ; dist++) {
+			long k = keys[pos];
+			if (k == EMPTY) {
+				keys[pos] = key;
+				values[pos] = value;
+				distances[pos] = dist;
+				count++;
+				return;
+			}
+			if (k == key) {
+				values[pos] = value;
+				return;
+			}
+			if (distances[pos] < dist) {
+				Object v = values[pos];
+				int d = distances[pos];
+				keys[pos] = key;
+				values[pos] = value;
+				distances[pos] = dist;
+				key = k;
+				value = (V)v;
+				dist = d;
+			}
+			pos = (pos + 1) & mask;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rehash() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(keys.length * 2);
+		count = hasEmptyKey ? 1 : 0;
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != EMPTY)
+				insert(oldKeys[i], (V)oldValues[i]);
+	}
+
+	// find the slot of a key, or -1 if it is not stored.
+	private int find(long key) {
+		int pos = home(key);
+		for (int dist = 0; ; dist++) {
+			long k = keys[pos];
+			if (k == key)
+				return pos;
+			if (k == EMPTY || distances[pos] < dist)
+				return -1;
+			pos = (pos + 1) & mask;
+		}
+	}
+
+	/**
+	 * Returns the value associated with a key, or null, if the key is not
+	 * found.
+	 * @param key The key to search for.
+	 * @return The value associated with the key, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == EMPTY)
+			return hasEmptyKey ? emptyKeyValue : null;
+		int pos = find(key);
+		return pos < 0 ? null : (V)values[pos];
+	}
+
+	/**
+	 * Queries if a key is stored in the map.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(long key) {
+		if (key == EMPTY)
+			return hasEmptyKey;
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the map, shifting back
+	 * the entries that follow it in the probe sequence.
+	 * @param key The key to be removed.
+	 */
+	public void remove(long key) {
+		if (key == EMPTY) {
+			if (hasEmptyKey)
+				count--;
+			hasEmptyKey = false;
+			emptyKeyValue = null;
+			return;
+		}
+		int pos = find(key);
+		if (pos < 0)
+			return;
+		int next = (pos + 1) & mask;
+		while (keys[next] != EMPTY && distances[next] > 0) {
+			keys[pos] = keys[next];
+			values[pos] = values[next];
+			distances[pos] = distances[next] - 1;
+			pos = next;
+			next = (next + 1) & mask;
+		}
+		keys[pos] = EMPTY;
+		values[pos] = null;
+		count--;
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the map.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Queries the current load factor do the table.
+	 * @return The ratio between the number of elements stored and the
+	 * number of slots of the table.
+	 */
+	public double loadFactor() {
+		return count / (1.0 * keys.length);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.EmptyStackException;
+
+/**
+ * Implements a LIFO protocol for long values, without boxing them. Once the
+ * stack has grown to its largest size, push and pop allocate nothing.
+ */
+public class LongStack {
+	private LongVector data = new LongVector();
+
+	/**
+	 * Add a new value to the stack.
+	 * @param value The value to be on the top of the stack.
+	 */
+	public void push(long value) {
+		data.append(value);
+	}
+
+	/**
+	 * Remove the element on the top of the stack, returning it.
+	 * @return The element at the top of the stack.
+	 */
+	public long pop() {
+		long result = peek();
+		data.remove(data.size()-1);
+		return result;
+	}
+
+	/**
+	 * Retrieve the element at the top of the stack, without removing it
+	 * from the stack.
+	 * @return The element at the top of the stack.
+	 */
+	public long peek() {
+		if (isEmpty())
+			throw new EmptyStackException();
+		return data.last();
+	}
+
+	/**
+	 * Check if the stack is empty.
+	 * @return True if there's no element on the stack, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return data.size() == 0;
+	}
+
+	/**
+	 * Return the number of elements on the stack currently stored.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return data.size();
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Implements a list of long values stored in contiguous memory, without
+ * boxing them. It has the same operations of Vector, and its iterator
+ * returns long values.
+ */
+public class LongVector implements java.lang.Iterable<Long> {
+
+	private class LongVectorIterator implements PrimitiveIterator.OfLong {
+		private int current = -1;
+
+		@Override
+		public long nextLong() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			current++;
+			return data[current];
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current < count-1;
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0)
+				throw new IllegalStateException("Usage before next().");
+			LongVector.this.remove(current);
+			current--;
+		}
+	}
+
+	private long[] data;
+	private int count = 0;
+	private double growthFactor = Growth.DEFAULT_FACTOR;
+	private int maxGrowth = 0;
+
+	/**
+	 * Creates an empty vector.
+	 */
+	public LongVector() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty vector, with room for a given number of elements.
+	 * @param initialCapacity The number of elements that can be stored
+	 * before the vector needs to grow.
+	 */
+	public LongVector(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException(
+					"Negative capacity: " + initialCapacity);
+		data = new long[initialCapacity];
+	}
+
+	/**
+	 * Configure how the storage grows when it is full, as in Vector.
+	 * @param factor The factor applied to the capacity, greater than 1.
+	 * The default is 2.
+	 * @param maxStep The maximum number of elements added on each growth,
+	 * or 0 for no limit, the default.
+	 */
+	public void growthPolicy(double factor, int maxStep) {
+		Growth.validate(factor, maxStep);
+		growthFactor = factor;
+		maxGrowth = maxStep;
+	}
+
+	/**
+	 * Inserts a new element to the vector at the specified index.
+	 * The index must be between 0 and the number of elements already
+	 * stored.
+	 * @param index The index to insert the new value.
+	 * @param value The value to be stored.
+	 */
+	public void insert(int index, long value) {
+		if (index < 0 || index > count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		ensureSpaceAvailable(count + 1);
+		System.arraycopy(data, index, data, index+1, count-index);
+		data[index] = value;
+		count++;
+	}
+
+	/**
+	 * Query the number of elements stored.
+	 * @return The current number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Remove the element at the given index, if its between 0 and
+	 * the number of elements stored.
+	 * @param index The index of the element to be removed.
+	 */
+	public void remove(int index) {
+		validateIndex(index);
+		System.arraycopy(data, index+1, data, index, count-index-1);
+		count--;
+	}
+
+	/**
+	 * Append a value to the end of the data.
+	 * @param value The value to be stored.
+	 */
+	public void append(long value) {
+		ensureSpaceAvailable(count + 1);
+		data[count++] = value;
+	}
+
+	/**
+	 * Append a range of values of an array to the end of the data, with
+	 * a single copy.
+	 * @param src The array holding the values.
+	 * @param off The index of the first value to append.
+	 * @param len The number of values to append.
+	 */
+	public void appendAll(long[] src, int off, int len) {
+		if (off < 0 || len < 0 || off > src.length - len)
+			throw new ArrayIndexOutOfBoundsException(off < 0 ? off : off + len);
+		ensureSpaceAvailable(count + len);
+		System.arraycopy(src, off, data, count, len);
+		count += len;
+	}
+
+	private void validateIndex(int index) {
+		if (index < 0 || index >= count)
+			throw new ArrayIndexOutOfBoundsException(index);
+	}
+
+	/**
+	 * Returns an element stored at a given index.
+	 * @param index The index of the element to be retrieved.
+	 * @return The element at the given index.
+	 */
+	public long get(int index) {
+		validateIndex(index);
+		return data[index];
+	}
+
+	// resize the underlying storage pool if necessary.
+	private void ensureSpaceAvailable(int needed) {
+		if (needed <= data.length)
+			return;
+		ensureCapacity(needed);
+	}
+
+	/**
+	 * Grow the storage, if needed, so that it can hold at least the given
+	 * number of elements without growing again.
+	 * @param capacity The number of elements to make room for.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= data.length)
+			return;
+		data = java.util.Arrays.copyOf(data,
+				Growth.grow(data.length, capacity, growthFactor, maxGrowth));
+	}
+
+	/**
+	 * Shrink the storage to the number of elements stored.
+	 */
+	public void trimToSize() {
+		if (count != data.length)
+			data = java.util.Arrays.copyOf(data, count);
+	}
+
+	/**
+	 * Returns the last element of the vector.
+	 * @return The last element of the vector.
+	 */
+	public long last() {
+		if (count > 0)
+			return data[count-1];
+		throw new IllegalStateException("Vector is empty.");
+	}
+
+	/**
+	 * Check if there are elements in the Vector.
+	 * @return True if there are no elements stored, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Return an iterator for the underlying vector, that returns the
+	 * elements without boxing them, through nextLong().
+	 */
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return new LongVectorIterator();
+	}
+
+	/**
+	 * Set an element of the vector at a given index to the given value.
+	 * @param index The index of the element to be changed.
+	 * @param value The new value of the element.
+	 */
+	public void set(int index, long value) {
+		validateIndex(index);
+		data[index] = value;
+	}
+
+	/**
+	 * Copy the elements of the vector to a new array.
+	 * @return An array with the elements stored, in order.
+	 */
+	public long[] toArray() {
+		return java.util.Arrays.copyOf(data, count);
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * <p>A bounded FIFO queue for many producer threads and a single consumer
+ * thread, that uses no locks.</p>
+ * <p>The elements are stored in a circular array with a power of two
+ * size. A producer claims slots by advancing the tail sequence with a
+ * compare and set, and then stores the elements in them with release
+ * stores. As a claimed slot may not be written yet, the consumer reads
+ * the slots, with acquire loads, and not the tail, to find the elements
+ * available; it frees the slots, and then advances the head sequence
+ * with a release store. The sequences are padded to different cache
+ * lines, and the producers share a limit of the tail, computed from the
+ * head, so they only read the head when the limit is reached.</p>
+ * <p>The order of the elements of a producer is kept, and so is the order
+ * of the elements of a batch. Null elements are not allowed. Calling
+ * poll from more than one thread breaks the queue.</p>
+ */
+public class MpscArrayQueue<T> {
+
+	private final AtomicReferenceArray<T> buffer;
+	private final int mask;
+	private final PaddedCounter head = new PaddedCounter();
+	private final PaddedCounter tail = new PaddedCounter();
+	private final PaddedCounter tailLimit = new PaddedCounter();
+
+	/**
+	 * Create an empty queue.
+	 * @param capacity The maximum number of elements, rounded up to a
+	 * power of two.
+	 */
+	public MpscArrayQueue(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		buffer = new AtomicReferenceArray<>(size);
+		mask = size - 1;
+		tailLimit.set(size);
+	}
+
+	/**
+	 * Add an element to the end of the queue.
+	 * @param value The element to be added.
+	 * @return True if the element was added, false if the queue is full.
+	 */
+	public boolean offer(T value) {
+		if (value == null)
+			throw new NullPointerException();
+		long limit = tailLimit.get();
+		long t;
+		do {
+			t = tail.get();
+			if (t >= limit) {
+				limit = head.get() + buffer.length();
+				if (t >= limit)
+					return false;
+				// a racing producer may store an older limit, which only
+				// makes a producer read the head again.
+				tailLimit.lazySet(limit);
+			}
+		} while (!tail.compareAndSet(t, t + 1));
+		buffer.lazySet((int)t & mask, value);
+		return true;
+	}
+
+	/**
+	 * Add elements of an array to the end of the queue, in order, while
+	 * there is room. The slots for all of them are claimed at once, so no
+	 * element of another producer is placed between them.
+	 * @param values The array with the elements to be added.
+	 * @param offset The index of the first element to be added.
+	 * @param length The number of elements to be added.
+	 * @return The number of elements added, from the offset.
+	 */
+	public int offer(T[] values, int offset, int length) {
+		for (int i = offset; i < offset + length; i++)
+			if (values[i] == null)
+				throw new NullPointerException();
+		if (length <= 0)
+			return 0;
+		long limit = tailLimit.get();
+		long t;
+		int n;
+		do {
+			t = tail.get();
+			if (t + length > limit) {
+				limit = head.get() + buffer.length();
+				if (t >= limit)
+					return 0;
+				tailLimit.lazySet(limit);
+			}
+			n = (int)Math.min(length, limit - t);
+		} while (!tail.compareAndSet(t, t + n));
+		for (int i = 0; i < n; i++)
+			buffer.lazySet((int)(t + i) & mask, values[offset + i]);
+		return n;
+	}
+
+	/**
+	 * Remove the element at the front of the queue. Must only be called
+	 * by the consumer thread.
+	 * @return The element removed, or null if the queue is empty.
+	 */
+	public T poll() {
+		long h = head.get();
+		int index = (int)h & mask;
+		T value = buffer.get(index);
+		if (value == null) {
+			if (h == tail.get())
+				return null;
+			// the slot was claimed, wait for the producer to store it.
+			do {
+				Thread.yield();
+				value = buffer.get(index);
+			} while (value == null);
+		}
+		buffer.lazySet(index, null);
+		head.lazySet(h + 1);
+		return value;
+	}
+
+	/**
+	 * Remove up to a number of elements from the front of the queue,
+	 * passing each one, in order, to a consumer. Stops at the first slot
+	 * not stored yet. The slots are released to the producers at once.
+	 * Must only be called by the consumer thread.
+	 * @param consumer The consumer of the elements removed.
+	 * @param max The maximum number of elements to remove.
+	 * @return The number of elements removed.
+	 */
+	public int drain(Consumer<? super T> consumer, int max) {
+		long h = head.get();
+		int n = 0;
+		for (; n < max; n++) {
+			int index = (int)(h + n) & mask;
+			T value = buffer.get(index);
+			if (value == null)
+				break;
+			buffer.lazySet(index, null);
+			consumer.accept(value);
+		}
+		if (n > 0)
+			head.lazySet(h + n);
+		return n;
+	}
+
+	/**
+	 * Queries the number of elements in the queue, including the ones
+	 * being stored by the producers. As other threads may be changing
+	 * the queue, the value may be outdated.
+	 * @return The number of elements in the queue.
+	 */
+	public int size() {
+		// read the head first, so the size is never negative.
+		long h = head.get();
+		return (int)(tail.get() - h);
+	}
+
+	/**
+	 * Check if the queue is empty. As other threads may be changing the
+	 * queue, the value may be outdated.
+	 * @return True if there are no elements in the queue.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Queries the maximum number of elements in the queue.
+	 * @return The capacity of the queue.
+	 */
+	public int capacity() {
+		return buffer.length();
+	}
+}
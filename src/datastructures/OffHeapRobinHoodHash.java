@@ -0,0 +1,427 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import interfaces.Serializer;
+
+/**
+ * <p>A Robin Hood hash table stored outside the Java heap.</p>
+ * <p>Keys and values are converted to a fixed number of bytes by
+ * Serializer objects, and stored in slots of direct buffers, so the
+ * garbage collector never sees an object per entry. Two keys are equal
+ * if their serialized bytes are equal. A table may use more memory than
+ * a single buffer can hold, as slots are split in segments of up to
+ * 1GB.</p>
+ * <p>Each slot holds the probe distance plus one (0 for an empty slot),
+ * a 32-bit hash of the key, the key and the value. The memory is
+ * released by free(), after which the table cannot be used. This class
+ * is not thread safe, not even for concurrent readers.</p>
+ */
+public class OffHeapRobinHoodHash<K, V> {
+
+	/**
+	 * Provides the memory used for the slots of a table.
+	 */
+	interface Storage {
+		/**
+		 * Allocates the segments for a table with the given capacity.
+		 */
+		ByteBuffer[] allocate(int segments, int segmentBytes, int capacity);
+		/**
+		 * Releases segments that are no longer used by the table.
+		 */
+		void release(ByteBuffer[] segments);
+	}
+
+	private static final Storage DIRECT = new Storage() {
+		@Override
+		public ByteBuffer[] allocate(int segments, int segmentBytes,
+		                             int capacity)
+		{
+			ByteBuffer[] buffers = new ByteBuffer[segments];
+			for (int i = 0; i < segments; i++)
+				buffers[i] = newBuffer(segmentBytes);
+			return buffers;
+		}
+		@Override
+		public void release(ByteBuffer[] segments) {
+			for (ByteBuffer segment : segments)
+				DirectBuffers.free(segment);
+		}
+	};
+
+	private static final double MAX_LOAD = 0.9;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int MAX_SEGMENT = 1 << 30;
+	private static final int HEADER = 8;
+
+	private final Serializer<K> keySerializer;
+	private final Serializer<V> valueSerializer;
+	private final int keySize;
+	private final int slotSize;
+	private final long seed;
+	private final Storage storage;
+	private ByteBuffer carry;
+	private ByteBuffer spare;
+	private ByteBuffer[] segments;
+	private int segmentShift;
+	private int segmentMask;
+	private int capacity;
+	private int count;
+
+	/**
+	 * Create a new off-heap hash table.
+	 * @param keys The serializer for the keys.
+	 * @param values The serializer for the values.
+	 */
+	public OffHeapRobinHoodHash(Serializer<K> keys, Serializer<V> values) {
+		this(keys, values, 16);
+	}
+
+	/**
+	 * Create a new off-heap hash table, with room for a given number of
+	 * elements.
+	 * @param keys The serializer for the keys.
+	 * @param values The serializer for the values.
+	 * @param capacity The number of elements expected.
+	 */
+	public OffHeapRobinHoodHash(Serializer<K> keys, Serializer<V> values,
+	                            int capacity)
+	{
+		this(keys, values, capacity, DIRECT, Hashing.newSeed());
+	}
+
+	// create a table whose slots are provided by the given storage.
+	OffHeapRobinHoodHash(Serializer<K> keys, Serializer<V> values,
+	                     int capacity, Storage storage, long seed)
+	{
+		this.keySerializer = keys;
+		this.valueSerializer = values;
+		this.keySize = keys.size();
+		this.slotSize = slotSize(keys, values);
+		this.seed = seed;
+		this.storage = storage;
+		this.carry = newBuffer(slotSize);
+		this.spare = newBuffer(slotSize);
+		allocate(RobinHoodTables.capacityFor(capacity, MAX_LOAD));
+	}
+
+	// use segments that already hold the slots of a table.
+	OffHeapRobinHoodHash(Serializer<K> keys, Serializer<V> values,
+	                     Storage storage, ByteBuffer[] segments,
+	                     int capacity, int count, long seed)
+	{
+		this.keySerializer = keys;
+		this.valueSerializer = values;
+		this.keySize = keys.size();
+		this.slotSize = slotSize(keys, values);
+		this.seed = seed;
+		this.storage = storage;
+		this.carry = newBuffer(slotSize);
+		this.spare = newBuffer(slotSize);
+		this.segments = segments;
+		this.capacity = capacity;
+		this.count = count;
+		int perSegment = segmentSlots(slotSize, capacity);
+		segmentShift = Integer.numberOfTrailingZeros(perSegment);
+		segmentMask = perSegment - 1;
+	}
+
+	private static ByteBuffer newBuffer(int bytes) {
+		return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+	}
+
+	// the number of bytes of each slot.
+	static int slotSize(Serializer<?> keys, Serializer<?> values) {
+		return (HEADER + keys.size() + values.size() + 7) & ~7;
+	}
+
+	// the number of slots stored in each segment of a table.
+	static int segmentSlots(int slotSize, int capacity) {
+		int perSegment = Integer.highestOneBit(MAX_SEGMENT / slotSize);
+		return Math.min(perSegment, capacity);
+	}
+
+	private void allocate(int slots) {
+		int perSegment = segmentSlots(slotSize, slots);
+		segmentShift = Integer.numberOfTrailingZeros(perSegment);
+		segmentMask = perSegment - 1;
+		segments = storage.allocate(slots / perSegment,
+		                            perSegment * slotSize, slots);
+		capacity = slots;
+	}
+
+	private ByteBuffer segment(int slot) {
+		return segments[slot >>> segmentShift];
+	}
+
+	private int offset(int slot) {
+		return (slot & segmentMask) * slotSize;
+	}
+
+	private void checkAvailable() {
+		if (segments == null)
+			throw new IllegalStateException("Table was freed.");
+	}
+
+	// copy a slot, or a temporary buffer, to another one.
+	private void copy(ByteBuffer from, int fromOffset,
+	                  ByteBuffer to, int toOffset)
+	{
+		for (int i = 0; i < slotSize; i += 8)
+			to.putLong(toOffset + i, from.getLong(fromOffset + i));
+	}
+
+	private boolean sameKey(ByteBuffer a, int aOffset,
+	                        ByteBuffer b, int bOffset)
+	{
+		int i = HEADER, end = HEADER + keySize;
+		for (; i + 8 <= end; i += 8)
+			if (a.getLong(aOffset + i) != b.getLong(bOffset + i))
+				return false;
+		for (; i < end; i++)
+			if (a.get(aOffset + i) != b.get(bOffset + i))
+				return false;
+		return true;
+	}
+
+	// serialize a key into the carry buffer, returning its hash.
+	private int prepare(K key) {
+		keySerializer.write(key, carry, HEADER);
+		int hash = (int)Hashing.hash(carry, HEADER, keySize, seed);
+		carry.putInt(4, hash);
+		return hash;
+	}
+
+	// find the slot of the key in the carry buffer, or -1.
+	private int find(int hash) {
+		int mask = capacity - 1;
+		int slot = hash & mask;
+		for (int dist = 0; ; dist++) {
+			ByteBuffer seg = segment(slot);
+			int off = offset(slot);
+			int stored = seg.getInt(off);
+			if (stored == 0 || stored - 1 < dist)
+				return -1;
+			if (seg.getInt(off + 4) == hash && sameKey(seg, off, carry, 0))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Associate a value to a key, replacing the previous value if the key
+	 * is already stored.
+	 * @param key The key to the value.
+	 * @param value The value associated with the key.
+	 * @throws IllegalStateException If the table needs more than 2^30
+	 * slots.
+	 */
+	public void put(K key, V value) {
+		checkAvailable();
+		int hash = prepare(key);
+		int slot = find(hash);
+		if (slot >= 0) {
+			valueSerializer.write(value, segment(slot),
+			                      offset(slot) + HEADER + keySize);
+			return;
+		}
+		if (count + 1 > capacity * MAX_LOAD) {
+			rehash();
+			prepare(key);
+		}
+		valueSerializer.write(value, carry, HEADER + keySize);
+		insert(hash);
+	}
+
+	// insert the entry in the carry buffer, starting at its home slot.
+	private void insert(int hash) {
+		int mask = capacity - 1;
+		int slot = hash & mask;
+		int dist = 0;
+		while (true) {
+			ByteBuffer seg = segment(slot);
+			int off = offset(slot);
+			int stored = seg.getInt(off);
+			if (stored == 0) {
+				carry.putInt(0, dist + 1);
+				copy(carry, 0, seg, off);
+				count++;
+				return;
+			}
+			if (stored - 1 < dist) {
+				carry.putInt(0, dist + 1);
+				copy(seg, off, spare, 0);
+				copy(carry, 0, seg, off);
+				ByteBuffer b = carry;
+				carry = spare;
+				spare = b;
+				dist = stored - 1;
+			}
+			slot = (slot + 1) & mask;
+			dist++;
+		}
+	}
+
+	// double the number of slots, failing before any change when the
+	// table cannot grow.
+	private void rehash() {
+		if (capacity >= MAX_CAPACITY)
+			throw new IllegalStateException(
+					"Table is full, with " + count + " elements.");
+		ByteBuffer[] old = segments;
+		int oldShift = segmentShift;
+		int oldMask = segmentMask;
+		int oldCapacity = capacity;
+		allocate(capacity * 2);
+		count = 0;
+		for (int slot = 0; slot < oldCapacity; slot++) {
+			ByteBuffer seg = old[slot >>> oldShift];
+			int off = (slot & oldMask) * slotSize;
+			if (seg.getInt(off) != 0) {
+				copy(seg, off, carry, 0);
+				insert(carry.getInt(4));
+			}
+		}
+		storage.release(old);
+	}
+
+	/**
+	 * Returns the value associated with a key, or null, if the key is not
+	 * found.
+	 * @param key The key to search for.
+	 * @return The value associated with the key, or null.
+	 */
+	public V get(K key) {
+		checkAvailable();
+		int slot = find(prepare(key));
+		if (slot < 0)
+			return null;
+		return valueSerializer.read(segment(slot),
+		                            offset(slot) + HEADER + keySize);
+	}
+
+	/**
+	 * Queries if a key is stored in the table.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(K key) {
+		checkAvailable();
+		return find(prepare(key)) >= 0;
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the table, shifting
+	 * back the entries that follow it in the probe sequence.
+	 * @param key The key to be removed.
+	 */
+	public void remove(K key) {
+		checkAvailable();
+		int slot = find(prepare(key));
+		if (slot < 0)
+			return;
+		int mask = capacity - 1;
+		int next = (slot + 1) & mask;
+		while (true) {
+			ByteBuffer seg = segment(next);
+			int off = offset(next);
+			int stored = seg.getInt(off);
+			if (stored <= 1)
+				break;
+			ByteBuffer to = segment(slot);
+			copy(seg, off, to, offset(slot));
+			to.putInt(offset(slot), stored - 1);
+			slot = next;
+			next = (next + 1) & mask;
+		}
+		segment(slot).putInt(offset(slot), 0);
+		count--;
+	}
+
+	/**
+	 * Release the memory used by the table. The table cannot be used
+	 * after this call.
+	 */
+	public void free() {
+		if (segments == null)
+			return;
+		storage.release(segments);
+		DirectBuffers.free(carry);
+		DirectBuffers.free(spare);
+		segments = null;
+		carry = spare = null;
+		count = 0;
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the table.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Queries the current load factor do the table.
+	 * @return The ratio between the number of elements stored and the
+	 * number of slots of the table.
+	 */
+	public double loadFactor() {
+		return count / (1.0 * capacity);
+	}
+
+	// the seed used to hash the keys.
+	long seed() {
+		return seed;
+	}
+
+	// the number of slots of the table.
+	int capacity() {
+		return capacity;
+	}
+
+	// the memory segments holding the slots.
+	ByteBuffer[] segments() {
+		return segments;
+	}
+
+	// copy the serialized key and value stored at a slot to a buffer,
+	// returning false if the slot is empty.
+	boolean entryAt(int slot, ByteBuffer out, int at) {
+		ByteBuffer seg = segment(slot);
+		int off = offset(slot);
+		if (seg.getInt(off) == 0)
+			return false;
+		int bytes = keySize + valueSerializer.size();
+		for (int i = 0; i < bytes; i++)
+			out.put(at + i, seg.get(off + HEADER + i));
+		return true;
+	}
+
+	// remove every entry, without releasing the memory.
+	void clear() {
+		for (int slot = 0; slot < capacity; slot++)
+			segment(slot).putInt(offset(slot), 0);
+		count = 0;
+	}
+
+	/**
+	 * Queries the amount of memory, outside the Java heap, used by the
+	 * slots of the table.
+	 * @return The number of bytes used.
+	 */
+	public long memoryUsage() {
+		return (long)capacity * slotSize;
+	}
+}
@@ -0,0 +1,25 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An AtomicLong followed by a cache line of padding, so two counters
+ * written by different threads are never in the same cache line, and
+ * an update of one does not invalidate the other in the cache of the
+ * other thread.
+ */
+@SuppressWarnings("serial")
+final class PaddedCounter extends AtomicLong {
+
+	// 56 bytes after the value, plus the header of the next object.
+	long p1, p2, p3, p4, p5, p6, p7;
+}
@@ -0,0 +1,464 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import interfaces.Serializer;
+
+/**
+ * <p>A Robin Hood hash table stored in a memory-mapped file, that can be
+ * reopened without rebuilding it.</p>
+ * <p>The slots have the same layout of OffHeapRobinHoodHash, and follow a
+ * header page with the format version, the sizes of keys and values, the
+ * capacity, the number of elements, the hash seed and the state of the
+ * file. Opening a file maps it and reads the header, so it takes the same
+ * time for any number of elements: pages are loaded by the operating
+ * system when they are first used.</p>
+ * <p>Every update is also appended to a journal file (the table file name
+ * followed by ".journal") before the table is changed, and the header is
+ * marked as dirty, on disk, before the first change after a sync().
+ * sync() and close() write the journal, force the mapped pages to disk,
+ * and mark the file as clean. As a Robin Hood insertion moves other
+ * entries, a dirty file may be inconsistent after a crash, so it is
+ * cleared and rebuilt from the journal when opened. Updates are durable
+ * after sync() returns; the ones after it may be lost, but the table
+ * always reflects a prefix of the updates. A table whose file was
+ * deleted is rebuilt from the journal.</p>
+ * <p>When a clean sync() finds the journal holding more than twice the
+ * records needed for the elements stored, the journal is replaced by one
+ * with a put for each element, so its size, and the time to recover a
+ * dirty file, follow the number of elements, and not the number of
+ * updates ever made.</p>
+ * <p>This class is not thread safe, and a file must be opened by a single
+ * table at a time.</p>
+ */
+public class PersistentRobinHoodHash<K, V> implements Closeable {
+
+	private static final int MAGIC = 0x52484854;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4096;
+	private static final int CLEAN = 1;
+	private static final int DIRTY = 2;
+
+	// offsets of the header fields.
+	private static final int MAGIC_FIELD = 0;
+	private static final int VERSION_FIELD = 4;
+	private static final int KEY_FIELD = 8;
+	private static final int VALUE_FIELD = 12;
+	private static final int CAPACITY_FIELD = 16;
+	private static final int COUNT_FIELD = 20;
+	private static final int STATE_FIELD = 24;
+	private static final int SEED_FIELD = 32;
+
+	// journal records hold an operation, a key and a value.
+	private static final int PUT = 1;
+	private static final int REMOVE = 2;
+	private static final int JOURNAL_BUFFER = 1 << 16;
+	// the number of records a journal holds before it is compacted.
+	private static final int COMPACT_MIN = 1 << 12;
+
+	private final File file;
+	private final File growth;
+	private final File journalFile;
+	private final File compacted;
+	private final Serializer<K> keySerializer;
+	private final Serializer<V> valueSerializer;
+	private final int keySize;
+	private final int recordSize;
+	private final ByteBuffer pending;
+	private FileChannel journal;
+	private FileChannel channel;
+	private MappedByteBuffer header;
+	private FileChannel grownChannel;
+	private MappedByteBuffer grownHeader;
+	private OffHeapRobinHoodHash<K, V> table;
+	private boolean dirty;
+
+	// maps the file regions used by the table.
+	private class MappedStorage implements OffHeapRobinHoodHash.Storage {
+		private final long seed;
+
+		MappedStorage(long seed) {
+			this.seed = seed;
+		}
+
+		@Override
+		public ByteBuffer[] allocate(int segments, int segmentBytes,
+		                             int capacity)
+		{
+			// a table grows into a new file, that replaces the old one
+			// when its segments are released.
+			File target = channel == null ? file : growth;
+			try {
+				RandomAccessFile raf = new RandomAccessFile(target, "rw");
+				raf.setLength(0);
+				FileChannel ch = raf.getChannel();
+				MappedByteBuffer h = map(ch, 0, HEADER_SIZE);
+				h.putInt(MAGIC_FIELD, MAGIC);
+				h.putInt(VERSION_FIELD, VERSION);
+				h.putInt(KEY_FIELD, keySize);
+				h.putInt(VALUE_FIELD, valueSerializer.size());
+				h.putInt(CAPACITY_FIELD, capacity);
+				h.putInt(COUNT_FIELD, 0);
+				h.putInt(STATE_FIELD, DIRTY);
+				h.putLong(SEED_FIELD, seed);
+				ByteBuffer[] result = new ByteBuffer[segments];
+				for (int i = 0; i < segments; i++)
+					result[i] = map(ch, HEADER_SIZE + (long)i * segmentBytes,
+					                segmentBytes);
+				h.force();
+				if (channel == null) {
+					channel = ch;
+					header = h;
+				} else {
+					grownChannel = ch;
+					grownHeader = h;
+				}
+				return result;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void release(ByteBuffer[] segments) {
+			for (ByteBuffer segment : segments)
+				DirectBuffers.free(segment);
+			if (grownChannel == null)
+				return;
+			try {
+				DirectBuffers.free(header);
+				channel.close();
+				Files.move(growth.toPath(), file.toPath(),
+				           StandardCopyOption.REPLACE_EXISTING,
+				           StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			channel = grownChannel;
+			header = grownHeader;
+			grownChannel = null;
+			grownHeader = null;
+		}
+	}
+
+	/**
+	 * Opens a hash table file, creating it if it does not exist.
+	 * @param file The file holding the table.
+	 * @param keys The serializer for the keys.
+	 * @param values The serializer for the values.
+	 * @throws IOException If the file cannot be used.
+	 */
+	public PersistentRobinHoodHash(File file, Serializer<K> keys,
+	                               Serializer<V> values) throws IOException
+	{
+		this(file, keys, values, 16);
+	}
+
+	/**
+	 * Opens a hash table file, creating it with room for a given number of
+	 * elements, if it does not exist.
+	 * @param file The file holding the table.
+	 * @param keys The serializer for the keys.
+	 * @param values The serializer for the values.
+	 * @param capacity The number of elements expected, used only when the
+	 * file is created.
+	 * @throws IOException If the file cannot be used.
+	 */
+	public PersistentRobinHoodHash(File file, Serializer<K> keys,
+	                               Serializer<V> values, int capacity)
+		throws IOException
+	{
+		this.file = file;
+		this.growth = new File(file.getPath() + ".grow");
+		this.journalFile = new File(file.getPath() + ".journal");
+		this.compacted = new File(journalFile.getPath() + ".new");
+		this.keySerializer = keys;
+		this.valueSerializer = values;
+		this.keySize = keys.size();
+		this.recordSize = 4 + keySize + values.size();
+		this.pending = ByteBuffer.allocate(JOURNAL_BUFFER / recordSize
+		                                   * recordSize)
+		                         .order(ByteOrder.nativeOrder());
+		growth.delete();
+		compacted.delete();
+		try {
+			if (file.exists()) {
+				reopen();
+			} else {
+				long seed = Hashing.newSeed();
+				table = new OffHeapRobinHoodHash<>(keys, values, capacity,
+						new MappedStorage(seed), seed);
+			}
+			journal = new FileOutputStream(journalFile, true).getChannel();
+			if (header.getInt(STATE_FIELD) != CLEAN)
+				recover();
+		} catch (IOException | RuntimeException e) {
+			release();
+			throw e;
+		}
+	}
+
+	private static MappedByteBuffer map(FileChannel ch, long position,
+	                                    int size) throws IOException
+	{
+		MappedByteBuffer buffer =
+				ch.map(FileChannel.MapMode.READ_WRITE, position, size);
+		buffer.order(ByteOrder.nativeOrder());
+		return buffer;
+	}
+
+	// map the slots of an existing file, as described by its header.
+	private void reopen() throws IOException {
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		if (channel.size() < HEADER_SIZE)
+			throw new IOException("Not a hash table file: " + file);
+		header = map(channel, 0, HEADER_SIZE);
+		if (header.getInt(MAGIC_FIELD) != MAGIC)
+			throw new IOException("Not a hash table file, or written with "
+			                      + "another byte order: " + file);
+		if (header.getInt(VERSION_FIELD) != VERSION)
+			throw new IOException("Unsupported format version "
+			                      + header.getInt(VERSION_FIELD));
+		if (header.getInt(KEY_FIELD) != keySize
+		    || header.getInt(VALUE_FIELD) != valueSerializer.size())
+			throw new IOException("Key or value size does not match.");
+		int capacity = header.getInt(CAPACITY_FIELD);
+		long seed = header.getLong(SEED_FIELD);
+		int slotSize = OffHeapRobinHoodHash.slotSize(keySerializer,
+		                                             valueSerializer);
+		int perSegment = OffHeapRobinHoodHash.segmentSlots(slotSize, capacity);
+		int segmentBytes = perSegment * slotSize;
+		ByteBuffer[] segments = new ByteBuffer[capacity / perSegment];
+		for (int i = 0; i < segments.length; i++)
+			segments[i] = map(channel, HEADER_SIZE + (long)i * segmentBytes,
+			                  segmentBytes);
+		table = new OffHeapRobinHoodHash<>(keySerializer, valueSerializer,
+				new MappedStorage(seed), segments, capacity,
+				header.getInt(COUNT_FIELD), seed);
+	}
+
+	// rebuild the table from the journal.
+	private void recover() throws IOException {
+		table.clear();
+		try (FileChannel in = new FileInputStream(journalFile).getChannel()) {
+			ByteBuffer buffer = ByteBuffer.allocate(pending.capacity())
+			                              .order(ByteOrder.nativeOrder());
+			while (in.read(buffer) > 0) {
+				buffer.flip();
+				int end = buffer.limit() / recordSize * recordSize;
+				for (int at = 0; at < end; at += recordSize) {
+					K key = keySerializer.read(buffer, at + 4);
+					if (buffer.getInt(at) == PUT)
+						table.put(key, valueSerializer.read(buffer,
+						                                    at + 4 + keySize));
+					else
+						table.remove(key);
+				}
+				buffer.position(end);
+				buffer.compact();
+			}
+		}
+		// a partial record, from a crash, is dropped.
+		journal.truncate(journal.size() / recordSize * recordSize);
+		dirty = true;
+		sync();
+	}
+
+	private void checkOpen() {
+		if (table == null)
+			throw new IllegalStateException("Table was closed.");
+	}
+
+	// mark the file as dirty, on disk, before it is changed.
+	private void modify() {
+		if (dirty)
+			return;
+		header.putInt(STATE_FIELD, DIRTY);
+		header.force();
+		dirty = true;
+	}
+
+	private void log(int operation, K key, V value) {
+		if (pending.remaining() < recordSize)
+			writeJournal(journal);
+		int at = pending.position();
+		pending.putInt(at, operation);
+		keySerializer.write(key, pending, at + 4);
+		if (value != null)
+			valueSerializer.write(value, pending, at + 4 + keySize);
+		pending.position(at + recordSize);
+	}
+
+	private void writeJournal(FileChannel to) {
+		pending.flip();
+		try {
+			while (pending.hasRemaining())
+				to.write(pending);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		pending.clear();
+	}
+
+	/**
+	 * Associate a value to a key, replacing the previous value if the key
+	 * is already stored.
+	 * @param key The key to the value.
+	 * @param value The value associated with the key.
+	 */
+	public void put(K key, V value) {
+		checkOpen();
+		modify();
+		log(PUT, key, value);
+		table.put(key, value);
+	}
+
+	/**
+	 * Returns the value associated with a key, or null, if the key is not
+	 * found.
+	 * @param key The key to search for.
+	 * @return The value associated with the key, or null.
+	 */
+	public V get(K key) {
+		checkOpen();
+		return table.get(key);
+	}
+
+	/**
+	 * Queries if a key is stored in the table.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(K key) {
+		checkOpen();
+		return table.containsKey(key);
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the table.
+	 * @param key The key to be removed.
+	 */
+	public void remove(K key) {
+		checkOpen();
+		modify();
+		log(REMOVE, key, null);
+		table.remove(key);
+	}
+
+	/**
+	 * Write every update to disk, and mark the file as clean, so that it
+	 * can be reopened without being rebuilt.
+	 * @throws IOException If the files cannot be written.
+	 */
+	public void sync() throws IOException {
+		checkOpen();
+		if (!dirty)
+			return;
+		writeJournal(journal);
+		journal.force(false);
+		for (ByteBuffer segment : table.segments())
+			((MappedByteBuffer)segment).force();
+		header.putInt(COUNT_FIELD, table.size());
+		header.putInt(STATE_FIELD, CLEAN);
+		header.force();
+		dirty = false;
+		compact();
+	}
+
+	// replace the journal with a put for each element, if it holds more
+	// than twice the records needed. The file must be clean, so a crash
+	// leaves either journal consistent with the table.
+	private void compact() throws IOException {
+		long records = journal.size() / recordSize;
+		if (records <= Math.max(COMPACT_MIN, 2L * table.size()))
+			return;
+		try (FileChannel out = new FileOutputStream(compacted).getChannel()) {
+			for (int slot = 0; slot < table.capacity(); slot++) {
+				if (pending.remaining() < recordSize)
+					writeJournal(out);
+				int at = pending.position();
+				if (table.entryAt(slot, pending, at + 4)) {
+					pending.putInt(at, PUT);
+					pending.position(at + recordSize);
+				}
+			}
+			writeJournal(out);
+			out.force(false);
+		}
+		journal.close();
+		Files.move(compacted.toPath(), journalFile.toPath(),
+		           StandardCopyOption.REPLACE_EXISTING,
+		           StandardCopyOption.ATOMIC_MOVE);
+		journal = new FileOutputStream(journalFile, true).getChannel();
+	}
+
+	/**
+	 * Synchronize the table with the disk, and release its resources. The
+	 * table cannot be used after this call.
+	 * @throws IOException If the files cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (table == null)
+			return;
+		try {
+			sync();
+		} finally {
+			release();
+		}
+	}
+
+	// unmap and close everything, ignoring the state of the table.
+	private void release() throws IOException {
+		if (table != null)
+			table.free();
+		table = null;
+		if (header != null)
+			DirectBuffers.free(header);
+		header = null;
+		if (channel != null)
+			channel.close();
+		if (journal != null)
+			journal.close();
+	}
+
+	/**
+	 * Queries the number of elements currently stored in the table.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		checkOpen();
+		return table.size();
+	}
+
+	/**
+	 * Queries the current load factor do the table.
+	 * @return The ratio between the number of elements stored and the
+	 * number of slots of the table.
+	 */
+	public double loadFactor() {
+		checkOpen();
+		return table.loadFactor();
+	}
+}
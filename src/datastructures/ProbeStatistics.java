@@ -0,0 +1,104 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * Collects the number of slots probed by the lookups of a hash table.
+ */
+public final class ProbeStatistics {
+
+	private static final int HISTOGRAM_SIZE = 64;
+
+	private final long[] histogram = new long[HISTOGRAM_SIZE];
+	private long hits;
+	private long hitProbes;
+	private long misses;
+	private long missProbes;
+	private int maxProbes;
+
+	void recordHit(int probes) {
+		hits++;
+		hitProbes += probes;
+		record(probes);
+	}
+
+	void recordMiss(int probes) {
+		misses++;
+		missProbes += probes;
+		record(probes);
+	}
+
+	private void record(int probes) {
+		histogram[Math.min(probes, HISTOGRAM_SIZE - 1)]++;
+		if (probes > maxProbes)
+			maxProbes = probes;
+	}
+
+	/**
+	 * Queries the histogram of probes per lookup. The value at index i is
+	 * the number of lookups that probed i slots, and the last index counts
+	 * every lookup with that many probes or more.
+	 * @return A copy of the histogram.
+	 */
+	public long[] histogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Queries the largest number of slots probed by a single lookup.
+	 * @return The maximum number of probes.
+	 */
+	public int maxProbes() {
+		return maxProbes;
+	}
+
+	/**
+	 * Queries the average number of slots probed by lookups that found
+	 * the key.
+	 * @return The average number of probes, or 0 if there was none.
+	 */
+	public double averageSuccessfulProbes() {
+		return hits == 0 ? 0 : hitProbes / (1.0 * hits);
+	}
+
+	/**
+	 * Queries the average number of slots probed by lookups that did not
+	 * find the key.
+	 * @return The average number of probes, or 0 if there was none.
+	 */
+	public double averageUnsuccessfulProbes() {
+		return misses == 0 ? 0 : missProbes / (1.0 * misses);
+	}
+
+	/**
+	 * Queries the number of lookups recorded.
+	 * @return The number of lookups.
+	 */
+	public long lookups() {
+		return hits + misses;
+	}
+
+	/**
+	 * Discard every value collected.
+	 */
+	public void reset() {
+		java.util.Arrays.fill(histogram, 0);
+		hits = hitProbes = misses = missProbes = 0;
+		maxProbes = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("lookups: %d\nsuccessful: %.3f probes\n"
+		                     + "unsuccessful: %.3f probes\nmax: %d probes",
+		                     lookups(), averageSuccessfulProbes(),
+		                     averageUnsuccessfulProbes(), maxProbes);
+	}
+}
@@ -10,53 +10,145 @@
 package datastructures;
 
 import java.util.NoSuchElementException;
-
-import datastructures.LinkedList;
-import interfaces.Iterator;
+import java.util.function.Consumer;
 
 /**
- * Implements a FIFO protocol for data.
+ * <p>Implements a FIFO protocol for data.</p>
+ * <p>The elements are stored in a circular array with a power of two
+ * size, from the head to the tail index, so push and pop allocate
+ * nothing, unless the array is full and has to double.</p>
  */
 public class Queue<T> {
 
-	LinkedList<T> container = new LinkedList<>();
-	
+	private Object[] elements;
+	private int mask;
+	private int head = 0;
+	private int count = 0;
+
+	/**
+	 * Create an empty queue.
+	 */
+	public Queue() {
+		this(16);
+	}
+
+	/**
+	 * Create an empty queue, with room for a given number of elements.
+	 * @param initialCapacity The number of elements that can be stored
+	 * before the queue needs to grow, rounded up to a power of two.
+	 */
+	public Queue(int initialCapacity) {
+		if (initialCapacity < 0 || initialCapacity > 1 << 30)
+			throw new IllegalArgumentException(
+					"Invalid capacity: " + initialCapacity);
+		int size = Integer.highestOneBit(Math.max(1, initialCapacity));
+		if (size < initialCapacity)
+			size <<= 1;
+		elements = new Object[size];
+		mask = size - 1;
+	}
+
+	// double the array until it has room for a number of elements,
+	// moving the elements to its start.
+	private void ensureCapacity(int needed) {
+		if (needed <= elements.length)
+			return;
+		if (needed < 0 || needed > 1 << 30)
+			throw new OutOfMemoryError("Required array size too large.");
+		int size = elements.length;
+		while (size < needed)
+			size <<= 1;
+		Object[] novo = new Object[size];
+		int first = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, novo, 0, first);
+		System.arraycopy(elements, 0, novo, first, count - first);
+		elements = novo;
+		mask = size - 1;
+		head = 0;
+	}
+
 	/**
 	 * Add a new value to the end of the queue.
 	 * @param value The value to be at the end of the queue.
 	 */
 	public void push(T value) {
-		container.append(value);
+		ensureCapacity(count + 1);
+		elements[(head + count) & mask] = value;
+		count++;
+	}
+
+	/**
+	 * Add the values of an array to the end of the queue, in order.
+	 * @param values The values to be at the end of the queue.
+	 */
+	public void pushAll(T[] values) {
+		ensureCapacity(count + values.length);
+		int tail = (head + count) & mask;
+		int first = Math.min(values.length, elements.length - tail);
+		System.arraycopy(values, 0, elements, tail, first);
+		System.arraycopy(values, first, elements, 0, values.length - first);
+		count += values.length;
 	}
 
 	/**
 	 * Remove the element at the front of the queue, returning it.
 	 * @return The element at the front of the queue.
 	 */
+	@SuppressWarnings("unchecked")
 	public T pop() {
 		if (isEmpty())
 			throw new NoSuchElementException("Queue is empty.");
-		Iterator<T> iter = container.iterator();
-		T data = iter.next();
-		iter.remove();
+		T data = (T)elements[head];
+		elements[head] = null;
+		head = (head + 1) & mask;
+		count--;
 		return data;
 	}
 
+	/**
+	 * Remove up to a number of elements from the front of the queue,
+	 * passing each one, in order, to a consumer.
+	 * @param consumer The consumer of the elements removed.
+	 * @param max The maximum number of elements to remove.
+	 * @return The number of elements removed.
+	 */
+	@SuppressWarnings("unchecked")
+	public int drainTo(Consumer<? super T> consumer, int max) {
+		int n = Math.min(max, count);
+		for (int i = 0; i < n; i++) {
+			T data = (T)elements[head];
+			elements[head] = null;
+			head = (head + 1) & mask;
+			count--;
+			consumer.accept(data);
+		}
+		return Math.max(n, 0);
+	}
+
 	/**
 	 * Retrieve the element at the front of the queue, without removing it.
 	 * @return The element at the front of the queue, or null if it's empty.
 	 */
+	@SuppressWarnings("unchecked")
 	public T peek() {
 		if (isEmpty())
 			return null;
-		return container.iterator().next();
+		return (T)elements[head];
 	}
 
 	/**
-	 * Check if the stack is empty.
-	 * @return True if there's no element on the stack, false otherwise.
+	 * Check if the queue is empty.
+	 * @return True if there's no element on the queue, false otherwise.
 	 */
 	public boolean isEmpty() {
-		return container.isEmpty();
+		return count == 0;
+	}
+
+	/**
+	 * Return the number of elements on the queue currently stored.
+	 * @return The number of elements stored.
+	 */
+	public int size() {
+		return count;
 	}
 }
@@ -1,29 +1,59 @@
 package datastructures;
 
-public class RobinHoodHash<K,V> {
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class RobinHoodHash<K,V> implements java.lang.Iterable<K> {
 	
 	private class HashEntry {
 		public final K key;
 		public final V value;
 		public int distance;
-		public boolean deleted;
 		
 		public HashEntry(K key, V value) {
 			this.key = key;
 			this.value = value;
 			this.distance = 0;
-			this.deleted = false;
 		}
 	}
 
 	private int numElementos = 0;
 	
-	private Object[] table = new Object[10];
+	private static final double MAX_LOAD = 0.9;
+	private static final int MIGRATION_STEP = 8;
+	private static final int GROUP = 16;
+
+	private Object[] table = new Object[16];
 	private boolean rehashing = false;
+	private ProbeStatistics statistics = null;
+	private boolean incremental = false;
+	private Object[] previous = null;
+	private int migrated = 0;
+	// scratch space of getAll(), for a group of keys.
+	private final int[] batchHomes = new int[GROUP];
+	private final Object[] batchEntries = new Object[GROUP];
+	private final Object[] batchKeys = new Object[GROUP];
 
 	public RobinHoodHash() {
 	}
 
+	/**
+	 * Enable, or disable, incremental resizing. In both modes the table
+	 * grows when an insertion would take it above 90% load. When enabled,
+	 * the entries of the previous table are moved to the new one a few
+	 * slots at a time, on every put and remove, instead of all at once.
+	 * While entries are being moved, lookups search both tables.
+	 * @param enabled True to resize incrementally, false to rebuild the
+	 * whole table when it grows.
+	 */
+	public void incrementalResize(boolean enabled) {
+		if (!enabled)
+			migrate(Integer.MAX_VALUE);
+		incremental = enabled;
+	}
+
 	public int size() {
 		return numElementos;
 	}
@@ -33,17 +63,59 @@ public class RobinHoodHash<K,V> {
 	}
 
 	public void put(K key, V value) {
-		int h = (key.hashCode() & 0x7FFFFFFF) % table.length;
+		if (incremental)
+			prepareInsertion();
+		int h = home(table, key);
 		HashEntry entry = new HashEntry(key, value);
 		insert(entry, h);
 	}
 
+	// move some entries from the previous table, and start a new
+	// migration if the table is too full to receive a new entry.
+	private void prepareInsertion() {
+		migrate(MIGRATION_STEP);
+		if (numElementos + 1 <= table.length * MAX_LOAD)
+			return;
+		migrate(Integer.MAX_VALUE);
+		previous = table;
+		migrated = 0;
+		table = new Object[table.length * 2];
+		migrate(MIGRATION_STEP);
+	}
+
+	/*
+	 * Move entries of the previous table, visiting up to the given number
+	 * of slots. Each entry is removed with a backward shift, so the
+	 * previous table stays a valid Robin Hood table, and a slot is only
+	 * left behind once it is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	private void migrate(int slots) {
+		while (previous != null && slots-- > 0) {
+			if (migrated == previous.length) {
+				previous = null;
+				return;
+			}
+			HashEntry entry = (HashEntry)previous[migrated];
+			if (entry == null) {
+				migrated++;
+			} else {
+				removeAt(previous, migrated);
+				int h = home(table, entry.key);
+				insert(new HashEntry(entry.key, entry.value), h);
+			}
+		}
+	}
+
+	// insert an entry, growing the table if it would exceed MAX_LOAD; an
+	// incremental resize has already made room.
 	private void insert(HashEntry entry, int hash) {
-		if (numElementos == table.length) {
+		if (numElementos + 1 > table.length * MAX_LOAD) {
 			rehash(entry);
 		} else {
+			int mask = table.length - 1;
 			for (int i = 0; i < table.length; ++i) {
-				int n = (hash + i) % table.length;
+				int n = (hash + i) & mask;
 				@SuppressWarnings("unchecked")
 				HashEntry candidate = (HashEntry)table[n];
 				if (candidate == null) {
@@ -57,67 +129,351 @@ public class RobinHoodHash<K,V> {
 					table[n] = entry;
 					entry = candidate;
 					i = entry.distance;
-					hash = (entry.key.hashCode() & 0x7FFFFFFF) % table.length;
+					hash = home(table, entry.key);
 				}
 			}
 		}
 	}
 
 	private void rehash(HashEntry toRehash) {
+		resize(table.length * 2);
+		int h = home(table, toRehash.key);
+		HashEntry entry = new HashEntry(toRehash.key, toRehash.value);
+		insert(entry, h);
+	}
+
+	// move every entry to a new table with the given length.
+	private void resize(int length) {
 		if (rehashing) {
 			throw new IllegalStateException();
 		}
 		rehashing = true;
 		Object[] oldTable = table;
-		table = new Object[(table.length / 2) * 3];
+		table = new Object[length];
 		int oldCount = numElementos;
 		numElementos = 0; 
 		for (Object o : oldTable) {
 			if (o != null) {
 				@SuppressWarnings("unchecked")
 				HashEntry candidate = (HashEntry)o;
-				if (!candidate.deleted) {
-					int h = (candidate.key.hashCode() & 0x7FFFFFFF) % table.length;
-					HashEntry entry = new HashEntry(candidate.key, candidate.value);
-					try {
-						insert(entry, h);
-					} catch (IllegalStateException e) {
-						table = oldTable;
-						numElementos = oldCount;
-						throw new RuntimeException("Could not insert into table.");
-					}
+				int h = home(table, candidate.key);
+				HashEntry entry = new HashEntry(candidate.key, candidate.value);
+				try {
+					insert(entry, h);
+				} catch (IllegalStateException e) {
+					table = oldTable;
+					numElementos = oldCount;
+					throw new RuntimeException("Could not insert into table.");
 				}
 			}
 		}
-		int h = (toRehash.key.hashCode() & 0x7FFFFFFF) % table.length;
-		HashEntry entry = new HashEntry(toRehash.key, toRehash.value);
-		insert(entry, h);
 		rehashing  = false;
 	}
 
+	/**
+	 * Insert a number of key-value pairs into the table. The table is
+	 * grown once, before the insertions, to hold every new pair, instead
+	 * of growing repeatedly while they are inserted.
+	 * @param keys The keys to the values.
+	 * @param values The values associated with each key.
+	 */
+	public void putAll(K[] keys, V[] values) {
+		migrate(Integer.MAX_VALUE);
+		int length = RobinHoodTables.capacityFor(numElementos + keys.length,
+		                                         MAX_LOAD);
+		if (length > table.length)
+			resize(length);
+		for (int i = 0; i < keys.length; i++)
+			put(keys[i], values[i]);
+	}
+
+	@SuppressWarnings("unchecked")
 	public V get(K key) {
-		HashEntry entry = find(key);
-		if (entry == null || entry.deleted)
-			return null;
-		return entry.value;
+		int n = indexOf(table, key);
+		if (n >= 0)
+			return ((HashEntry)table[n]).value;
+		if (previous != null) {
+			n = indexOf(previous, key);
+			if (n >= 0)
+				return ((HashEntry)previous[n]).value;
+		}
+		return null;
+	}
+
+	/**
+	 * Queries if a key is stored in the table, including in the table
+	 * of an incremental resize still running.
+	 * @param key The key to search for.
+	 * @return True if the key is stored, false otherwise.
+	 */
+	public boolean containsKey(K key) {
+		return indexOf(table, key) >= 0
+		       || (previous != null && indexOf(previous, key) >= 0);
+	}
+
+	/**
+	 * Look up a batch of keys, a group of 16 keys at a time. Each step
+	 * of the lookups of a group is done for every key of the group before
+	 * the next one: the keys are hashed, the entries at their home slots
+	 * are loaded, then the keys stored in those entries, and only then
+	 * the keys are compared. The loads of a step do not depend on each
+	 * other, so their cache misses are waited for together. A key not
+	 * found at its home slot is probed from the next one. While a resize
+	 * is running, or statistics are collected, the keys are looked up one
+	 * at a time. No memory is allocated, so a table must not be used by
+	 * more than one thread calling getAll() at a time.
+	 * @param keys The keys to search for.
+	 * @param out The array that receives, at the index of each key, its
+	 * value, or null if the key is not found.
+	 */
+	@SuppressWarnings("unchecked")
+	public void getAll(K[] keys, V[] out) {
+		if (previous != null || statistics != null) {
+			for (int i = 0; i < keys.length; i++)
+				out[i] = get(keys[i]);
+			return;
+		}
+		int[] homes = batchHomes;
+		Object[] entries = batchEntries;
+		Object[] stored = batchKeys;
+		for (int start = 0; start < keys.length; start += GROUP) {
+			int n = Math.min(GROUP, keys.length - start);
+			for (int j = 0; j < n; j++)
+				homes[j] = home(table, keys[start + j]);
+			for (int j = 0; j < n; j++)
+				entries[j] = table[homes[j]];
+			for (int j = 0; j < n; j++) {
+				HashEntry entry = (HashEntry)entries[j];
+				stored[j] = entry == null ? null : entry.key;
+			}
+			for (int j = 0; j < n; j++) {
+				K key = keys[start + j];
+				HashEntry entry = (HashEntry)entries[j];
+				if (entry == null) {
+					out[start + j] = null;
+				} else if (stored[j].equals(key)) {
+					out[start + j] = entry.value;
+				} else {
+					int pos = probe(table, key, homes[j], 1);
+					out[start + j] = pos < 0 ? null
+					                         : ((HashEntry)table[pos]).value;
+				}
+				entries[j] = null;
+				stored[j] = null;
+			}
+		}
+	}
+
+	/**
+	 * Remove a key, and its associated value, from the table. Instead of
+	 * leaving a tombstone, the entries following the removed one are
+	 * shifted back, until an empty slot or an entry at its home slot is
+	 * found, so probe sequences do not grow with removals.
+	 * @param key The key to be removed.
+	 */
+	public void remove(K key) {
+		if (incremental)
+			migrate(MIGRATION_STEP);
+		int n = indexOf(table, key);
+		if (n >= 0) {
+			removeAt(table, n);
+		} else if (previous != null) {
+			n = indexOf(previous, key);
+			if (n >= 0)
+				removeAt(previous, n);
+		}
+	}
+
+	private void removeAt(Object[] table, int n) {
+		int mask = table.length - 1;
+		int next = (n + 1) & mask;
+		while (table[next] != null) {
+			@SuppressWarnings("unchecked")
+			HashEntry entry = (HashEntry)table[next];
+			if (entry.distance == 0)
+				break;
+			entry.distance--;
+			table[n] = entry;
+			n = next;
+			next = (next + 1) & mask;
+		}
+		table[n] = null;
+		numElementos--;
+	}
+
+	/**
+	 * Call an action for every key-value pair of the table, including
+	 * the ones of an incremental resize still running, without moving
+	 * any of them.
+	 * @param action The action receiving each key and value.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachEntry(BiConsumer<? super K, ? super V> action) {
+		for (Object o : table)
+			if (o != null)
+				action.accept(((HashEntry)o).key, ((HashEntry)o).value);
+		if (previous != null)
+			for (Object o : previous)
+				if (o != null)
+					action.accept(((HashEntry)o).key, ((HashEntry)o).value);
+	}
+
+	/**
+	 * Returns an iterator over the keys of the table. Any incremental
+	 * resize still running is completed first.
+	 */
+	@Override
+	public java.util.Iterator<K> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Returns a Spliterator over the keys of the table, that splits the
+	 * slots of the table in halves, so the keys can be processed by a
+	 * parallel stream. Any incremental resize still running is completed
+	 * first.
+	 */
+	@Override
+	public Spliterator<K> spliterator() {
+		migrate(Integer.MAX_VALUE);
+		return new SlotSpliterator<>(table, numElementos,
+				new Function<Object, K>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public K apply(Object slot) {
+						return ((HashEntry)slot).key;
+					}
+				});
+	}
+
+	/**
+	 * Returns a Spliterator over the key-value pairs of the table, that
+	 * splits the slots of the table in halves. Any incremental resize
+	 * still running is completed first.
+	 */
+	public Spliterator<KeyValue<K, V>> entrySpliterator() {
+		migrate(Integer.MAX_VALUE);
+		return new SlotSpliterator<>(table, numElementos,
+				new Function<Object, KeyValue<K, V>>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public KeyValue<K, V> apply(Object slot) {
+						HashEntry entry = (HashEntry)slot;
+						return new KeyValue<>(entry.key, entry.value);
+					}
+				});
+	}
+
+	/**
+	 * Computes the average distance of the stored entries to their
+	 * home slot.
+	 * @return The average probe distance.
+	 */
+	@SuppressWarnings("unchecked")
+	public double averageDistance() {
+		long total = 0;
+		for (Object o : entries())
+			if (o != null)
+				total += ((HashEntry)o).distance;
+		return numElementos == 0 ? 0 : total / (1.0 * numElementos);
+	}
+
+	/**
+	 * Computes the maximum distance of a stored entry to its home slot.
+	 * @return The maximum probe distance.
+	 */
+	@SuppressWarnings("unchecked")
+	public int maxDistance() {
+		int max = 0;
+		for (Object o : entries())
+			if (o != null)
+				max = Math.max(max, ((HashEntry)o).distance);
+		return max;
+	}
+
+	/**
+	 * Computes the histogram of the distances of the stored entries to
+	 * their home slot.
+	 * @return An array where the value at index i is the number of
+	 * entries stored i slots away from their home slot.
+	 */
+	@SuppressWarnings("unchecked")
+	public int[] distanceHistogram() {
+		int[] histogram = new int[maxDistance() + 1];
+		for (Object o : entries())
+			if (o != null)
+				histogram[((HashEntry)o).distance]++;
+		return histogram;
+	}
+
+	/**
+	 * Start collecting the number of probes of every lookup. While the
+	 * collection is disabled, lookups only pay for a null check.
+	 * @param enabled True to collect statistics, false to stop collecting
+	 * them and discard the collected ones.
+	 */
+	public void collectStatistics(boolean enabled) {
+		if (!enabled)
+			statistics = null;
+		else if (statistics == null)
+			statistics = new ProbeStatistics();
+	}
+
+	/**
+	 * Queries the statistics collected for the lookups on this table.
+	 * @return The statistics collected, or null if the collection is
+	 * not enabled.
+	 */
+	public ProbeStatistics statistics() {
+		return statistics;
+	}
+
+	// the slots of the table, and of the previous one while migrating.
+	private Object[] entries() {
+		if (previous == null)
+			return table;
+		Object[] all = new Object[table.length + previous.length];
+		System.arraycopy(table, 0, all, 0, table.length);
+		System.arraycopy(previous, 0, all, table.length, previous.length);
+		return all;
+	}
+
+	/*
+	 * Compute the home slot of a key. Tables always have a power of two
+	 * length, so the slot is taken from the low bits of the hash with a
+	 * mask, and the hash is mixed first, so keys with weak hashCode()
+	 * implementations, like sequential Integers, are still spread.
+	 */
+	private static int home(Object[] table, Object key) {
+		return (int)Hashing.mix64(key.hashCode()) & (table.length - 1);
+	}
+
+	// find the slot of a key, or -1 if it is not stored.
+	private int indexOf(Object[] table, K key) {
+		return probe(table, key, home(table, key), 0);
 	}
 
-	private HashEntry find(K key) {
-		int h = (key.hashCode() & 0x7FFFFFFF) % table.length;
-		for (int i = 0; i < table.length; ++i) {
-			int n = (h + i) % table.length;
+	// find the slot of a key, probing from the slot at a given distance
+	// from its home slot, or -1 if it is not stored.
+	private int probe(Object[] table, K key, int h, int from) {
+		int mask = table.length - 1;
+		for (int i = from; i < table.length; ++i) {
+			int n = (h + i) & mask;
 			@SuppressWarnings("unchecked")
 			HashEntry candidate = (HashEntry)table[n];
 			if (candidate == null || candidate.distance < i) {
-				System.out.println(key + " not found after " + i + " tries.");
-				return null;
+				if (statistics != null)
+					statistics.recordMiss(i + 1);
+				return -1;
 			}
 			if (candidate.key.equals(key)) {
-				System.out.println(key + " found after " + i + " tries.");
-				return candidate;
+				if (statistics != null)
+					statistics.recordHit(i + 1);
+				return n;
 			}
 		}
-		System.out.println(key + " not found after " + table.length + " tries.");
-		return null;		
+		if (statistics != null)
+			statistics.recordMiss(table.length);
+		return -1;
 	}
 }
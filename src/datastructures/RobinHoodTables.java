@@ -0,0 +1,35 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+/**
+ * Helpers shared by the primitive Robin Hood hash maps.
+ */
+final class RobinHoodTables {
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private RobinHoodTables() {
+	}
+
+	/**
+	 * Computes the power of two table size needed to store a number of
+	 * elements without exceeding the maximum load factor.
+	 * @param elements The number of elements expected.
+	 * @param maxLoad The maximum load factor of the table.
+	 * @return The table capacity, a power of two.
+	 */
+	static int capacityFor(int elements, double maxLoad) {
+		long needed = (long)Math.ceil(Math.max(elements, 2) / maxLoad) + 1;
+		if (needed >= MAX_CAPACITY)
+			return MAX_CAPACITY;
+		return Integer.highestOneBit((int)needed - 1) << 1;
+	}
+}
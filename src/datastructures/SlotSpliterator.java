@@ -0,0 +1,100 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A Spliterator over the non-empty slots of the array of a hash table.
+ * The range of slots is split in halves, so each part can be traversed
+ * by a different thread. Only a spliterator that was never split knows
+ * its exact size, and reports it as SIZED.
+ */
+final class SlotSpliterator<T> implements Spliterator<T> {
+	private final Object[] slots;
+	private final Function<Object, T> element;
+	private final int fence;
+	private int index;
+	private long estimate;
+	private int characteristics;
+
+	/**
+	 * Create a spliterator over every slot of a table.
+	 * @param slots The slots of the table.
+	 * @param size The number of non-empty slots.
+	 * @param element Converts a non-empty slot to the element returned.
+	 */
+	SlotSpliterator(Object[] slots, int size, Function<Object, T> element) {
+		this(slots, 0, slots.length, size, SIZED | DISTINCT, element);
+	}
+
+	private SlotSpliterator(Object[] slots, int origin, int fence,
+	                        long estimate, int characteristics,
+	                        Function<Object, T> element)
+	{
+		this.slots = slots;
+		this.index = origin;
+		this.fence = fence;
+		this.estimate = estimate;
+		this.characteristics = characteristics;
+		this.element = element;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while (index < fence) {
+			Object slot = slots[index++];
+			if (slot != null) {
+				if (estimate > 0)
+					estimate--;
+				action.accept(element.apply(slot));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		Object[] s = slots;
+		int end = fence;
+		int i = index;
+		index = end;
+		estimate = 0;
+		for (; i < end; i++)
+			if (s[i] != null)
+				action.accept(element.apply(s[i]));
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int mid = (index + fence) >>> 1;
+		if (mid <= index)
+			return null;
+		characteristics &= ~SIZED;
+		estimate >>>= 1;
+		Spliterator<T> prefix = new SlotSpliterator<>(slots, index, mid,
+				estimate, characteristics, element);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return estimate;
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+}
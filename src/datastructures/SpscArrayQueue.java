@@ -0,0 +1,191 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p>A bounded FIFO queue for a single producer thread and a single
+ * consumer thread, that uses no locks.</p>
+ * <p>The elements are stored in a circular array with a power of two
+ * size. The producer only writes the tail sequence, and the consumer only
+ * writes the head sequence, each with a release store (lazySet) after the
+ * slots it changed, and each reads the sequence of the other with an
+ * acquire load. Each side keeps a copy of the last value it read of the
+ * other sequence, so it only reads the shared one when the copy says the
+ * queue is full, or empty. A sequence and the copy kept by the thread
+ * that writes it are padded to a cache line of their own, so neither
+ * side invalidates the line of the other when it refreshes its copy.</p>
+ * <p>Null elements are not allowed. Calling offer from more than one
+ * thread, or poll from more than one thread, breaks the queue.</p>
+ */
+public class SpscArrayQueue<T> {
+
+	// a sequence, and the last value of the other sequence read by the
+	// thread that writes it, followed by a cache line of padding.
+	@SuppressWarnings("serial")
+	private static final class Sequence extends AtomicLong {
+		long cache;
+		long p1, p2, p3, p4, p5, p6, p7;
+	}
+
+	private final Object[] buffer;
+	private final int mask;
+	// written by the consumer, that caches the tail in it.
+	private final Sequence head = new Sequence();
+	// written by the producer, that caches the head in it.
+	private final Sequence tail = new Sequence();
+
+	/**
+	 * Create an empty queue.
+	 * @param capacity The maximum number of elements, rounded up to a
+	 * power of two.
+	 */
+	public SpscArrayQueue(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		buffer = new Object[size];
+		mask = size - 1;
+	}
+
+	// the number of free slots, reading the head only if the cached one
+	// leaves less than the slots needed.
+	private int free(long t, int needed) {
+		int free = buffer.length - (int)(t - tail.cache);
+		if (free < needed) {
+			tail.cache = head.get();
+			free = buffer.length - (int)(t - tail.cache);
+		}
+		return free;
+	}
+
+	/**
+	 * Add an element to the end of the queue. Must only be called by the
+	 * producer thread.
+	 * @param value The element to be added.
+	 * @return True if the element was added, false if the queue is full.
+	 */
+	public boolean offer(T value) {
+		if (value == null)
+			throw new NullPointerException();
+		long t = tail.get();
+		if (free(t, 1) < 1)
+			return false;
+		buffer[(int)t & mask] = value;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * Add elements of an array to the end of the queue, in order, while
+	 * there is room. The consumer sees them all at once. Must only be
+	 * called by the producer thread.
+	 * @param values The array with the elements to be added.
+	 * @param offset The index of the first element to be added.
+	 * @param length The number of elements to be added.
+	 * @return The number of elements added, from the offset.
+	 */
+	public int offer(T[] values, int offset, int length) {
+		long t = tail.get();
+		int n = Math.min(length, free(t, length));
+		for (int i = 0; i < n; i++) {
+			if (values[offset + i] == null)
+				throw new NullPointerException();
+			buffer[(int)(t + i) & mask] = values[offset + i];
+		}
+		if (n > 0)
+			tail.lazySet(t + n);
+		return Math.max(n, 0);
+	}
+
+	// the number of elements available, reading the tail only if the
+	// cached one leaves less than the elements wanted.
+	private int available(long h, int wanted) {
+		int available = (int)(head.cache - h);
+		if (available < wanted) {
+			head.cache = tail.get();
+			available = (int)(head.cache - h);
+		}
+		return available;
+	}
+
+	/**
+	 * Remove the element at the front of the queue. Must only be called
+	 * by the consumer thread.
+	 * @return The element removed, or null if the queue is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		long h = head.get();
+		if (available(h, 1) < 1)
+			return null;
+		int index = (int)h & mask;
+		T value = (T)buffer[index];
+		buffer[index] = null;
+		head.lazySet(h + 1);
+		return value;
+	}
+
+	/**
+	 * Remove up to a number of elements from the front of the queue,
+	 * passing each one, in order, to a consumer. The slots are released
+	 * to the producer at once. Must only be called by the consumer
+	 * thread.
+	 * @param consumer The consumer of the elements removed.
+	 * @param max The maximum number of elements to remove.
+	 * @return The number of elements removed.
+	 */
+	@SuppressWarnings("unchecked")
+	public int drain(Consumer<? super T> consumer, int max) {
+		long h = head.get();
+		int n = Math.min(max, available(h, max));
+		for (int i = 0; i < n; i++) {
+			int index = (int)(h + i) & mask;
+			T value = (T)buffer[index];
+			buffer[index] = null;
+			consumer.accept(value);
+		}
+		if (n > 0)
+			head.lazySet(h + n);
+		return Math.max(n, 0);
+	}
+
+	/**
+	 * Queries the number of elements in the queue. As the other thread
+	 * may be changing the queue, the value may be outdated.
+	 * @return The number of elements in the queue.
+	 */
+	public int size() {
+		// read the head first, so the size is never negative.
+		long h = head.get();
+		return (int)(tail.get() - h);
+	}
+
+	/**
+	 * Check if the queue is empty. As the other thread may be changing
+	 * the queue, the value may be outdated.
+	 * @return True if there are no elements in the queue.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Queries the maximum number of elements in the queue.
+	 * @return The capacity of the queue.
+	 */
+	public int capacity() {
+		return buffer.length;
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+import interfaces.BidirectionalIterator;
+import interfaces.Iterator;
+import interfaces.Sortable;
+
+/**
+ * <p>An unrolled Double Linked List, where each node stores a small array
+ * of elements, which can be iterated with a bidirectional iterator, and
+ * have its elements sorted.</p>
+ * <p>Compared to LinkedList, the links are shared by the elements of a
+ * node, and consecutive elements are contiguous in memory, so iterating
+ * costs a pointer chase only once per node. A full node is split in two
+ * on insertion, and a node less than half full is merged with a neighbour
+ * on removal, so nodes are at least half full, except when both
+ * neighbours are too full to merge.</p>
+ * <p>The iterator has the same semantics as the one of LinkedList.</p>
+ */
+public class UnrolledLinkedList<T> implements Iterable<T>, Sortable<T> {
+
+	class Node {
+		Object[] items = new Object[nodeCapacity];
+		int count;
+		Node previous;
+		Node next;
+
+		// link this node after another one, or as the head.
+		void linkAfter(Node before) {
+			previous = before;
+			next = before == null ? head : before.next;
+			if (before != null)
+				before.next = this;
+			else
+				head = this;
+			if (next != null)
+				next.previous = this;
+			else
+				tail = this;
+		}
+
+		void unlink() {
+			if (previous != null)
+				previous.next = next;
+			else
+				head = next;
+			if (next != null)
+				next.previous = previous;
+			else
+				tail = previous;
+			next = null;
+			previous = null;
+		}
+	}
+
+	/*
+	 * The cursor is the position of the element returned by next(), or
+	 * a null node at the end of the list. The element returned last is
+	 * the one before the cursor.
+	 */
+	class UnrolledIterator implements BidirectionalIterator<T> {
+
+		Node node = head;
+		int index = 0;
+
+		private boolean atStart() {
+			return node == head && index == 0;
+		}
+
+		// move the cursor to the following element.
+		private void advance() {
+			if (++index == node.count) {
+				node = node.next;
+				index = 0;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return node != null;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return node == null || !atStart();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (node == null)
+				throw new NoSuchElementException();
+			T data = (T)node.items[index];
+			advance();
+			return data;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T previous() {
+			if (node == null) {
+				if (tail == null)
+					throw new NoSuchElementException();
+				node = tail;
+				index = tail.count - 1;
+			} else if (index > 0) {
+				index--;
+			} else {
+				if (node.previous == null)
+					throw new NoSuchElementException();
+				node = node.previous;
+				index = node.count - 1;
+			}
+			return (T)node.items[index];
+		}
+
+		@Override
+		public void insert(T data) {
+			if (atStart())
+				throw new IllegalStateException("Usage before next().");
+			// the new element takes the place of the element returned last,
+			// and the cursor stays on the element after that one.
+			if (node == null)
+				insertAt(tail, tail.count - 1, data);
+			else if (index > 0)
+				insertAt(node, index - 1, data);
+			else
+				insertAt(node.previous, node.previous.count - 1, data);
+			advance();
+			advance();
+		}
+
+		@Override
+		public void append(T data) {
+			if (head == null) {
+				String error_msg = "Cannot use iterator on an empty list.";
+				throw new IllegalStateException(error_msg);
+			}
+			// the new element goes after the element at the cursor, or at
+			// the end of the list, and the cursor moves to it.
+			if (node == null)
+				insertAt(tail, tail.count, data);
+			else
+				insertAt(node, index + 1, data);
+		}
+
+		// insert an element in a node, splitting it if full, and move the
+		// cursor to the new element.
+		private void insertAt(Node target, int position, T data) {
+			if (target.count == nodeCapacity) {
+				Node half = new Node();
+				int keep = nodeCapacity / 2;
+				half.count = nodeCapacity - keep;
+				System.arraycopy(target.items, keep, half.items, 0, half.count);
+				Arrays.fill(target.items, keep, nodeCapacity, null);
+				target.count = keep;
+				half.linkAfter(target);
+				if (position > keep) {
+					target = half;
+					position -= keep;
+				}
+			}
+			System.arraycopy(target.items, position, target.items,
+			                 position + 1, target.count - position);
+			target.items[position] = data;
+			target.count++;
+			count++;
+			node = target;
+			index = position;
+		}
+
+		@Override
+		public void remove() {
+			if (atStart())
+				throw new IllegalStateException("Usage before next().");
+			Node target;
+			int position;
+			if (node == null) {
+				target = tail;
+				position = tail.count - 1;
+			} else if (index > 0) {
+				target = node;
+				position = index - 1;
+			} else {
+				target = node.previous;
+				position = target.count - 1;
+			}
+			System.arraycopy(target.items, position + 1, target.items,
+			                 position, target.count - position - 1);
+			target.items[--target.count] = null;
+			count--;
+			if (target == node)
+				index--;
+			rebalance(target);
+		}
+
+		// release an empty node, or merge a node less than half full with
+		// one of its neighbours, keeping the cursor on its element.
+		private void rebalance(Node target) {
+			if (target.count == 0) {
+				target.unlink();
+				return;
+			}
+			if (target.count >= nodeCapacity / 2)
+				return;
+			Node next = target.next;
+			Node previous = target.previous;
+			if (next != null && target.count + next.count <= nodeCapacity) {
+				if (node == next) {
+					node = target;
+					index += target.count;
+				}
+				System.arraycopy(next.items, 0, target.items, target.count,
+				                 next.count);
+				target.count += next.count;
+				next.unlink();
+			} else if (previous != null
+			           && previous.count + target.count <= nodeCapacity) {
+				if (node == target) {
+					node = previous;
+					index += previous.count;
+				}
+				System.arraycopy(target.items, 0, previous.items,
+				                 previous.count, target.count);
+				previous.count += target.count;
+				target.unlink();
+			}
+		}
+	}
+
+	private final int nodeCapacity;
+	private Node head;
+	private Node tail;
+	private int count;
+
+	/**
+	 * Creates an empty list, with nodes of 32 elements.
+	 */
+	public UnrolledLinkedList() {
+		this(32);
+	}
+
+	/**
+	 * Creates an empty list, with nodes of a given number of elements.
+	 * Between 16 and 64 elements keep the nodes within a few cache lines.
+	 * @param nodeCapacity The number of elements of each node, at least 2.
+	 */
+	public UnrolledLinkedList(int nodeCapacity) {
+		if (nodeCapacity < 2)
+			throw new IllegalArgumentException(
+					"Invalid node capacity: " + nodeCapacity);
+		this.nodeCapacity = nodeCapacity;
+	}
+
+	/**
+	 * Check if the container is empty.
+	 * @return True if there are no elements stored, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return head == null;
+	}
+
+	/**
+	 * Query the number of elements stored.
+	 * @return The current number of elements stored.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Add a new element to the end of the structure.
+	 * @param data The element to be added.
+	 */
+	public void append(T data) {
+		if (tail == null || tail.count == nodeCapacity)
+			new Node().linkAfter(tail);
+		tail.items[tail.count++] = data;
+		count++;
+	}
+
+	/**
+	 * Returns a bidirectional iterator to the list.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new UnrolledIterator();
+	}
+
+	/**
+	 * Sort the elements in the container. The elements are copied to an
+	 * array, sorted with a stable sort, and copied back to the nodes.
+	 * @param cmp The comparator to be used to sort the elements.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void sort(Comparator<T> cmp) {
+		Object[] array = new Object[count];
+		int i = 0;
+		for (Node n = head; n != null; n = n.next) {
+			System.arraycopy(n.items, 0, array, i, n.count);
+			i += n.count;
+		}
+		Arrays.sort((T[])array, cmp);
+		i = 0;
+		for (Node n = head; n != null; n = n.next) {
+			System.arraycopy(array, i, n.items, 0, n.count);
+			i += n.count;
+		}
+	}
+}
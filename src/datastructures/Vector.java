@@ -54,8 +54,46 @@ class VectorIterator<T> implements interfaces.Iterator<T> {
  */
 public class Vector<T> implements interfaces.Iterable<T> {
 
-	private Object[] data = new Object[16];
+	private Object[] data;
 	private int count = 0;
+	private double growthFactor = Growth.DEFAULT_FACTOR;
+	private int maxGrowth = 0;
+
+	/**
+	 * Creates an empty vector.
+	 */
+	public Vector() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty vector, with room for a given number of elements.
+	 * @param initialCapacity The number of elements that can be stored
+	 * before the vector needs to grow.
+	 */
+	public Vector(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException(
+					"Negative capacity: " + initialCapacity);
+		data = new Object[initialCapacity];
+	}
+
+	/**
+	 * Configure how the storage grows when it is full. The capacity is
+	 * multiplied by a factor, so appends take amortized constant time,
+	 * and the growth may be limited to a maximum number of elements, to
+	 * bound the unused memory of very large vectors, at the cost of
+	 * making appends past that size linear.
+	 * @param factor The factor applied to the capacity, greater than 1.
+	 * The default is 2.
+	 * @param maxStep The maximum number of elements added on each growth,
+	 * or 0 for no limit, the default.
+	 */
+	public void growthPolicy(double factor, int maxStep) {
+		Growth.validate(factor, maxStep);
+		growthFactor = factor;
+		maxGrowth = maxStep;
+	}
 
 	/**
 	 * Inserts a new element to the vector at the specified index.
@@ -88,7 +126,6 @@ public class Vector<T> implements interfaces.Iterable<T> {
 	 */
 	public void remove(int index) {
 		validateIndex(index);
-		ensureSpaceAvailable();
 		System.arraycopy(data, index+1, data, index, count-index-1);
 		count--;
 		data[count] = null;
@@ -122,17 +159,32 @@ public class Vector<T> implements interfaces.Iterable<T> {
 	private void ensureSpaceAvailable() {
 		if (count < data.length)
 			return;
-		Object[] novo = new Object[newSize()];
+		ensureCapacity(count + 1);
+	}
+
+	/**
+	 * Grow the storage, if needed, so that it can hold at least the given
+	 * number of elements without growing again.
+	 * @param capacity The number of elements to make room for.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= data.length)
+			return;
+		int size = Growth.grow(data.length, capacity, growthFactor, maxGrowth);
+		Object[] novo = new Object[size];
 		System.arraycopy(data, 0, novo, 0, count);
 		data = novo;
 	}
 
-	// compute the new size of the storage pool.
-	private int newSize() {
-		final int INCREASE_LIMIT = 1024;
-		return data.length > INCREASE_LIMIT ?
-				    data.length + INCREASE_LIMIT :
-					data.length*2;
+	/**
+	 * Shrink the storage to the number of elements stored.
+	 */
+	public void trimToSize() {
+		if (count == data.length)
+			return;
+		Object[] novo = new Object[count];
+		System.arraycopy(data, 0, novo, 0, count);
+		data = novo;
 	}
 
 	/**
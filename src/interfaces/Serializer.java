@@ -0,0 +1,33 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package interfaces;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for objects that convert values of a type to, and from, a
+ * fixed number of bytes, so they can be stored outside the Java heap.
+ */
+public interface Serializer<T> {
+	/**
+	 * Returns the number of bytes used by every serialized value.
+	 */
+	int size();
+	/**
+	 * Write a value to a buffer, using exactly size() bytes, starting at
+	 * the given offset. The buffer position must not be changed.
+	 */
+	void write(T value, ByteBuffer buffer, int offset);
+	/**
+	 * Read a value written by write() from a buffer, starting at the
+	 * given offset. The buffer position must not be changed.
+	 */
+	T read(ByteBuffer buffer, int offset);
+}
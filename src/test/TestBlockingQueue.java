@@ -0,0 +1,93 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import datastructures.BlockingQueue;
+
+public class TestBlockingQueue {
+	public static void main(String...strings) throws InterruptedException {
+		final BlockingQueue<Integer> queue = new BlockingQueue<>();
+		final int CONSUMERS = 8;
+		final int COUNT = 200000;
+
+		// consumers take until they receive a negative value.
+		final AtomicLong sum = new AtomicLong();
+		Thread[] consumers = new Thread[CONSUMERS];
+		for (int c = 0; c < CONSUMERS; c++) {
+			final boolean batch = c % 2 == 0;
+			consumers[c] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Integer[] out = new Integer[16];
+					try {
+						while (true) {
+							int n = batch ? queue.takeUpTo(out, out.length) : 1;
+							if (!batch)
+								out[0] = queue.take();
+							for (int i = 0; i < n; i++) {
+								if (out[i] < 0) {
+									// give back the markers of the others.
+									for (int j = i + 1; j < n; j++)
+										queue.put(out[j]);
+									return;
+								}
+								sum.addAndGet(out[i]);
+							}
+						}
+					} catch (InterruptedException e) {
+						System.out.println("Interrupted.");
+					}
+				}
+			});
+			consumers[c].start();
+		}
+		long expected = 0;
+		for (int i = 0; i < COUNT; i++) {
+			queue.put(i);
+			expected += i;
+		}
+		// wait for the values, so each consumer gets one end marker.
+		while (!queue.isEmpty())
+			Thread.sleep(1);
+		for (int c = 0; c < CONSUMERS; c++)
+			queue.put(-1);
+		for (Thread consumer : consumers)
+			consumer.join();
+		System.out.println("Sum: " + sum.get() + "\tExpected: " + expected
+		                   + "\tSize: " + queue.size());
+
+		long start = System.nanoTime();
+		Integer value = queue.poll(50, TimeUnit.MILLISECONDS);
+		long elapsed = (System.nanoTime() - start) / 1000000;
+		System.out.println("Poll: " + value + "\tWaited 50ms: "
+		                   + (elapsed >= 50));
+
+		Thread waiting = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					queue.take();
+				} catch (InterruptedException e) {
+					System.out.println("Interrupted.");
+				}
+			}
+		});
+		waiting.start();
+		Thread.sleep(50);
+		waiting.interrupt();
+		waiting.join();
+		// the cancelled waiter does not receive this value.
+		queue.put(42);
+		System.out.println("Size: " + queue.size() + "\tPoll: " + queue.poll());
+	}
+}
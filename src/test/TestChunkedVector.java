@@ -0,0 +1,56 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import datastructures.ChunkedVector;
+
+public class TestChunkedVector {
+	public static void main(String...strings) {
+		final int COUNT = 1000000;
+		ChunkedVector<Integer> vec = new ChunkedVector<>(10);
+		for (int i = 0; i < COUNT; i++)
+			vec.append(i);
+		int errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (vec.get(i) != i)
+				errors++;
+		System.out.println("Size: " + vec.size() + "\tLast: " + vec.last()
+		                   + "\tErrors: " + errors);
+
+		vec.set(COUNT / 2, -1);
+		long sum = 0;
+		for (int i : vec)
+			sum += i;
+		System.out.println("Sum: " + sum);
+
+		for (int i = 0; i < COUNT - 1024; i++)
+			vec.removeLast();
+		vec.append(42);
+		System.out.println("Size: " + vec.size() + "\tLast: " + vec.last());
+
+		// alternate at a chunk boundary, reusing the spare chunk.
+		errors = 0;
+		for (int i = 0; i < COUNT; i++) {
+			vec.removeLast();
+			vec.removeLast();
+			vec.append(i);
+			vec.append(-i);
+			if (vec.get(1023) != i || vec.last() != -i)
+				errors++;
+		}
+		System.out.println("Size: " + vec.size() + "\tBoundary errors: "
+		                   + errors);
+		try {
+			vec.get(1025);
+		} catch (IndexOutOfBoundsException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+}
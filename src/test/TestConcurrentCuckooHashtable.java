@@ -0,0 +1,58 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import datastructures.ConcurrentCuckooHashtable;
+
+public class TestConcurrentCuckooHashtable {
+	public static void main(String...strings) throws Exception {
+		final ConcurrentCuckooHashtable<Integer, Integer> hash =
+				new ConcurrentCuckooHashtable<>();
+		final int THREADS = 4;
+		final int COUNT = 100000;
+
+		Thread[] writers = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int first = t * COUNT;
+			writers[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = first; i < first + COUNT; i++) {
+							hash.put(i, -i);
+							if (hash.get(i) != -i)
+								System.out.println("Lost key " + i);
+						}
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+				}
+			});
+			writers[t].start();
+		}
+		for (Thread w : writers)
+			w.join();
+		System.out.println("Itens: "+hash.size()+"\tLoad: "+hash.loadFactor());
+
+		int missing = 0;
+		for (int i = 0; i < THREADS * COUNT; i++)
+			if (hash.get(i) == null || hash.get(i) != -i)
+				missing++;
+		System.out.println("Missing keys: " + missing);
+
+		for (int i = 0; i < THREADS * COUNT; i += 2)
+			hash.remove(i);
+		hash.set(1, 1);
+		System.out.println("Itens after removal: " + hash.size());
+		System.out.println("0 retrieves " + hash.get(0));
+		System.out.println("1 retrieves " + hash.get(1));
+		System.out.println("3 retrieves " + hash.get(3));
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import static java.lang.System.out;
+
+import datastructures.CuckooFilter;
+
+public class TestCuckooFilter {
+	public static void main(String...strings) {
+		final int COUNT = 1000000;
+		CuckooFilter<Integer> filter = new CuckooFilter<>(COUNT);
+
+		int failed = 0;
+		for (int i = 0; i < COUNT; i++)
+			if (!filter.add(i))
+				failed++;
+		out.println("Itens: " + filter.size() + "\tLoad: "
+		            + filter.loadFactor() + "\tFailed: " + failed);
+		out.println("Bits: " + filter.fingerprintBits() + "\tBytes/item: "
+		            + filter.memoryUsage() / (1.0 * COUNT));
+
+		int missing = 0;
+		for (int i = 0; i < COUNT; i++)
+			if (!filter.mightContain(i))
+				missing++;
+		int positives = 0;
+		for (int i = COUNT; i < 2 * COUNT; i++)
+			if (filter.mightContain(i))
+				positives++;
+		out.println("False negatives: " + missing + "\tFalse positives: "
+		            + positives / (1.0 * COUNT));
+
+		Integer[] batch = new Integer[2 * COUNT];
+		boolean[] found = new boolean[batch.length];
+		for (int i = 0; i < batch.length; i++)
+			batch[i] = i;
+		filter.mightContainAll(batch, found);
+		int errors = 0;
+		for (int i = 0; i < batch.length; i++)
+			if (found[i] != filter.mightContain(i))
+				errors++;
+		out.println("mightContainAll errors: " + errors);
+
+		for (int i = 0; i < COUNT; i += 2)
+			filter.remove(i);
+		missing = 0;
+		for (int i = 1; i < COUNT; i += 2)
+			if (!filter.mightContain(i))
+				missing++;
+		out.println("Itens after removal: " + filter.size()
+		            + "\tFalse negatives: " + missing);
+
+		CuckooFilter<Integer> precise = new CuckooFilter<>(COUNT, 0.0001);
+		for (int i = 0; i < COUNT; i++)
+			precise.add(i);
+		positives = 0;
+		for (int i = COUNT; i < 2 * COUNT; i++)
+			if (precise.mightContain(i))
+				positives++;
+		out.println("Bits: " + precise.fingerprintBits()
+		            + "\tFalse positives: " + positives / (1.0 * COUNT));
+	}
+}
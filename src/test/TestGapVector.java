@@ -0,0 +1,70 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import datastructures.GapVector;
+import interfaces.Iterator;
+
+public class TestGapVector {
+	public static void main(String...strings) {
+		GapVector<Integer> vec = new GapVector<>(4);
+		for (int i = 0; i < 10; i++)
+			vec.append(i);
+		// remove the even values, and insert the negative of the odd ones
+		// before them.
+		Iterator<Integer> iter = vec.iterator();
+		while (iter.hasNext()) {
+			int value = iter.next();
+			if (value % 2 == 0)
+				iter.remove();
+			else
+				iter.insert(-value);
+		}
+		for (int i : vec)
+			System.out.print(i + " ");
+		System.out.println("\tSize: " + vec.size() + "\tLast: " + vec.last());
+
+		// random edits, checked against an ArrayList.
+		Random random = new Random(42);
+		ArrayList<Integer> list = new ArrayList<>();
+		vec = new GapVector<>();
+		int errors = 0;
+		for (int i = 0; i < 100000; i++) {
+			int op = random.nextInt(4);
+			if (op == 0 && !list.isEmpty()) {
+				int index = random.nextInt(list.size());
+				list.remove(index);
+				vec.remove(index);
+			} else if (op == 1 && !list.isEmpty()) {
+				int index = random.nextInt(list.size());
+				list.set(index, i);
+				vec.set(index, i);
+			} else {
+				int index = random.nextInt(list.size() + 1);
+				list.add(index, i);
+				vec.insert(index, i);
+			}
+		}
+		for (int i = 0; i < list.size(); i++)
+			if (!list.get(i).equals(vec.get(i)))
+				errors++;
+		System.out.println("Size: " + vec.size() + "\tExpected: " + list.size()
+		                   + "\tErrors: " + errors);
+
+		try {
+			vec.iterator().remove();
+		} catch (IllegalStateException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+}
@@ -11,6 +11,9 @@ package test;
 
 import static java.lang.System.out;
 
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
 import datastructures.*;
 
 public class TestHashtable {
@@ -27,11 +30,15 @@ public class TestHashtable {
 		
 		for (int i = 0; i < nomes.length; i++) {
 			hash.put(nomes[i],i);
-			out.println("Itens: "+hash.size()+"\tLoad: "+hash.loadFactor());
+			out.println("Itens: "+hash.size()+"\tLoad: "+hash.loadFactor()
+			            +"\tStash: "+hash.stashOccupancy());
 		}
 		for (String tst : testNames) {
 			out.println(tst + " retrieves " + hash.get(tst) );
 		}
+		Integer[] values = new Integer[testNames.length];
+		hash.getAll(testNames, values);
+		out.println("getAll retrieves " + java.util.Arrays.toString(values));
 		
 		System.out.println("Listing all elements with 'foreach':");
 		for (String tst : hash) {
@@ -43,5 +50,171 @@ public class TestHashtable {
 		for (String tst : testNames) {
 			out.println(tst + " retrieves " + hash.get(tst) );
 		}
+
+		System.out.println("Removing 'Aline'.");
+		hash.remove("Aline");
+		out.println("Itens: " + hash.size());
+		hash.forEachEntry(new java.util.function.BiConsumer<String, Integer>() {
+			@Override
+			public void accept(String key, Integer value) {
+				out.println(key + " -> " + value);
+			}
+		});
+
+		for (int bucketSize : new int[] { 1, 4, 8 })
+			testBuckets(bucketSize, 200000);
+		testBulk(100000);
+		testIncremental(100000);
+	}
+
+	/*
+	 * Fill a table that resizes incrementally past several growths,
+	 * stopping right after one, remove some keys, and check every key.
+	 * The entries of a table of n slots take n / 8 puts and removes to
+	 * be moved, so the checks run while the move is in progress.
+	 */
+	private static void testIncremental(int count)
+			throws DuplicateKeyException
+	{
+		Hashtable<Integer, Integer> hash = new Hashtable<>(2, 4);
+		hash.incrementalResize(true);
+		int growths = 0, n = 0;
+		double load = 0;
+		while (true) {
+			hash.put(n, -n);
+			n++;
+			double current = hash.loadFactor();
+			if (current < load) {
+				growths++;
+				if (n >= count)
+					break;
+			}
+			load = current;
+		}
+		int removed = 0;
+		for (int i = 0; i < n; i += 97) {
+			hash.remove(i);
+			removed++;
+		}
+		int errors = hash.size() == n - removed ? 0 : 1;
+		for (int i = 0; i < n; i++) {
+			boolean stored = i % 97 != 0;
+			if (hash.containsKey(i) != stored)
+				errors++;
+			Integer value = hash.get(i);
+			if (stored ? value == null || value != -i : value != null)
+				errors++;
+		}
+		out.println("Incremental\tItens: " + hash.size() + "\tGrowths: "
+		            + growths + "\tErrors: " + errors);
+	}
+
+	/*
+	 * Insert keys with putAll(), into an empty table and into a partly
+	 * filled one, remove some of them, and check the keys, and the
+	 * key-value pairs, returned by parallel streams.
+	 */
+	private static void testBulk(final int count)
+			throws DuplicateKeyException
+	{
+		Hashtable<Integer, Integer> hash = new Hashtable<>(2, 4);
+		Integer[] keys = new Integer[count];
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = i;
+			values[i] = -i;
+		}
+		hash.putAll(keys, values);
+		for (int i = 0; i < count; i++) {
+			keys[i] = count + i;
+			values[i] = -(count + i);
+		}
+		hash.putAll(keys, values);
+		int errors = 0;
+		for (int i = 0; i < 2 * count; i++)
+			if (hash.get(i) == null || hash.get(i) != -i)
+				errors++;
+		out.println("putAll\tItens: " + hash.size() + "\tErrors: " + errors);
+
+		for (int i = 0; i < 2 * count; i += 3)
+			hash.remove(i);
+		long keyCount = StreamSupport.stream(hash.spliterator(), true)
+		                             .distinct().count();
+		long wrongKeys = StreamSupport.stream(hash.spliterator(), true)
+				.filter(new Predicate<Integer>() {
+					@Override
+					public boolean test(Integer key) {
+						return key % 3 == 0 || key < 0 || key >= 2 * count;
+					}
+				}).count();
+		long entryCount = StreamSupport.stream(hash.entrySpliterator(), true)
+		                               .count();
+		long wrongEntries = StreamSupport.stream(hash.entrySpliterator(), true)
+				.filter(new Predicate<KeyValue<Integer, Integer>>() {
+					@Override
+					public boolean test(KeyValue<Integer, Integer> entry) {
+						return entry.key % 3 == 0 || entry.value != -entry.key;
+					}
+				}).count();
+		out.println("Streams\tItens: " + hash.size() + "\tKeys: " + keyCount
+		            + "\tEntries: " + entryCount + "\tErrors: "
+		            + (wrongKeys + wrongEntries));
+
+		try {
+			hash.putAll(new Integer[] { 2 * count, 1 },
+			            new Integer[] { 0, 0 });
+			out.println("putAll accepted a duplicate key.");
+		} catch (DuplicateKeyException e) {
+			out.println("putAll duplicate: " + e.getMessage());
+		}
+	}
+
+	/*
+	 * Fill a bucketized table, recording the lowest load factor reached
+	 * before the table grows, which should be above 90% for buckets of 4
+	 * slots or more, and about 20% for single-slot buckets. Every key is
+	 * checked after the insertions, and after removing half of them, with
+	 * get() and with getAll().
+	 */
+	private static void testBuckets(int bucketSize, int count)
+			throws DuplicateKeyException
+	{
+		double expected = bucketSize >= 4 ? 0.9 : 0.2;
+		Hashtable<Integer, Integer> hash = new Hashtable<>(2, bucketSize);
+		double lowest = 1, load = 0;
+		int growths = 0;
+		for (int i = 0; i < count; i++) {
+			hash.put(i, -i);
+			double current = hash.loadFactor();
+			if (current < load) {
+				// small tables grow at any load, with a full stash.
+				if (i > 1000)
+					lowest = Math.min(lowest, load);
+				growths++;
+			}
+			load = current;
+		}
+		int errors = lowest < expected ? 1 : 0;
+		for (int i = 0; i < count; i++)
+			if (hash.get(i) != -i)
+				errors++;
+		for (int i = 0; i < count; i += 2)
+			hash.remove(i);
+		for (int i = 0; i < count; i++)
+			if ((hash.get(i) == null) != (i % 2 == 0))
+				errors++;
+		// a batch that is not a multiple of the group, with missing keys.
+		Integer[] keys = new Integer[count + 7];
+		Integer[] values = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = i;
+		hash.getAll(keys, values);
+		for (int i = 0; i < keys.length; i++)
+			if (!java.util.Objects.equals(values[i],
+			                              i % 2 == 1 && i < count ? -i : null))
+				errors++;
+		out.printf("Buckets of %d\tItens: %d\tGrowths: %d\tLoad before "
+		           + "growth: %.2f (expected %.2f)\tErrors: %d%n", bucketSize,
+		           hash.size(), growths, lowest, expected, errors);
 	}
-}
\ No newline at end of file
+}
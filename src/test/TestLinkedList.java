@@ -10,6 +10,7 @@
 package test;
 
 import java.util.Comparator;
+import java.util.Random;
 
 import datastructures.LinkedList;
 import interfaces.BidirectionalIterator;
@@ -57,6 +58,42 @@ public class TestLinkedList {
 		for (Integer n : lista)
 			System.out.print(n+" ");
 		System.out.println();
+
+		// a stable sort of random keys, checked in both directions.
+		final int COUNT = 100000;
+		Random random = new Random(42);
+		LinkedList<int[]> pares = new LinkedList<>();
+		for (int i = 0; i < COUNT; i++)
+			pares.append(new int[] { random.nextInt(1000), i });
+		pares.sort(new Comparator<int[]>() {
+			@Override
+			public int compare(int[] o1, int[] o2) {
+				return Integer.compare(o1[0], o2[0]);
+			}
+		});
+		int errors = 0, count = 0;
+		int[] anterior = null;
+		for (int[] par : pares) {
+			if (anterior != null && (anterior[0] > par[0]
+			    || (anterior[0] == par[0] && anterior[1] > par[1])))
+				errors++;
+			anterior = par;
+			count++;
+		}
+		BidirectionalIterator<int[]> reverso =
+				(BidirectionalIterator<int[]>)pares.iterator();
+		while (reverso.hasNext())
+			reverso.next();
+		int[] proximo = null;
+		while (reverso.hasPrevious()) {
+			int[] par = reverso.previous();
+			if (proximo != null && par[0] > proximo[0])
+				errors++;
+			proximo = par;
+			count--;
+		}
+		System.out.println("Sorted: " + COUNT + "\tErrors: " + errors
+		                   + "\tUnbalanced: " + count);
 	}
 }
 
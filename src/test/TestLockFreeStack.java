@@ -0,0 +1,64 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import datastructures.LockFreeStack;
+
+public class TestLockFreeStack {
+	public static void main(String...strings) throws InterruptedException {
+		LockFreeStack<Integer> stack = new LockFreeStack<>();
+		for (int i = 0; i < 10; i++)
+			stack.push(i);
+		System.out.println("Peek: " + stack.peek());
+		while (!stack.isEmpty())
+			System.out.print(stack.pop() + " ");
+		System.out.println("\tPop: " + stack.pop());
+
+		// each thread pushes its values, popping one after every two
+		// pushes, so pushes and pops meet in the elimination array.
+		final int THREADS = 8;
+		final int COUNT = 200000;
+		final LockFreeStack<Integer> shared = new LockFreeStack<>(4);
+		final AtomicLong popped = new AtomicLong();
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int base = t * COUNT;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long sum = 0;
+					for (int i = 0; i < COUNT; i++) {
+						shared.push(base + i);
+						if (i % 2 == 1) {
+							Integer value = shared.pop();
+							if (value != null)
+								sum += value;
+						}
+					}
+					popped.addAndGet(sum);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		long sum = popped.get();
+		long count = 0;
+		for (Integer value = shared.pop(); value != null; value = shared.pop()) {
+			sum += value;
+			count++;
+		}
+		long n = (long)THREADS * COUNT;
+		System.out.println("Sum: " + sum + "\tExpected: " + n * (n - 1) / 2
+		                   + "\tLeft: " + count);
+	}
+}
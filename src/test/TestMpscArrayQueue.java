@@ -0,0 +1,77 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.function.Consumer;
+
+import datastructures.MpscArrayQueue;
+
+public class TestMpscArrayQueue {
+	public static void main(String...strings) throws InterruptedException {
+		final int PRODUCERS = 4;
+		final int COUNT = 500000;
+		final MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(1024);
+
+		// each element carries its producer and its sequence number.
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int id = p;
+			producers[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long[][] batch = new long[8][];
+					int next = 0;
+					while (next < COUNT) {
+						int n = Math.min(id + 1, COUNT - next);
+						for (int i = 0; i < n; i++)
+							batch[i] = new long[] { id, next + i };
+						int offered = queue.offer(batch, 0, n);
+						next += offered;
+						if (offered < n) {
+							// offer the rest one by one.
+							while (offered < n) {
+								if (queue.offer(batch[offered])) {
+									offered++;
+									next++;
+								} else {
+									Thread.yield();
+								}
+							}
+						}
+					}
+				}
+			});
+			producers[p].start();
+		}
+
+		final long[] expected = new long[PRODUCERS];
+		final int[] state = { 0, 0 };
+		Consumer<long[]> check = new Consumer<long[]>() {
+			@Override
+			public void accept(long[] value) {
+				if (value[1] != expected[(int)value[0]]++)
+					state[1]++;
+				state[0]++;
+			}
+		};
+		while (state[0] < PRODUCERS * COUNT) {
+			long[] value = queue.poll();
+			if (value != null)
+				check.accept(value);
+			if (queue.drain(check, 100) == 0)
+				Thread.yield();
+		}
+		for (Thread producer : producers)
+			producer.join();
+		System.out.println("Received: " + state[0] + "\tErrors: " + state[1]
+		                   + "\tEmpty: " + queue.isEmpty()
+		                   + "\tPoll: " + queue.poll());
+	}
+}
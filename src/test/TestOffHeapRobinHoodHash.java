@@ -0,0 +1,54 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import static java.lang.System.out;
+
+import datastructures.OffHeapRobinHoodHash;
+import util.Serializers;
+
+public class TestOffHeapRobinHoodHash {
+	public static void main(String...strings) {
+		final int COUNT = 1000000;
+		OffHeapRobinHoodHash<Long, Double> hash =
+				new OffHeapRobinHoodHash<>(Serializers.LONG, Serializers.DOUBLE);
+
+		for (long i = 0; i < COUNT; i++)
+			hash.put(i, i / 2.0);
+		out.println("Itens: " + hash.size() + "\tLoad: " + hash.loadFactor()
+		            + "\tBytes: " + hash.memoryUsage());
+
+		int errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (hash.get(i) != i / 2.0)
+				errors++;
+		out.println("Errors: " + errors);
+		out.println("-1 retrieves " + hash.get(-1L));
+
+		for (long i = 0; i < COUNT; i += 2)
+			hash.remove(i);
+		hash.put(1L, -1.0);
+		errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (hash.containsKey(i) != (i % 2 == 1))
+				errors++;
+		out.println("Itens after removal: " + hash.size()
+		            + "\tErrors: " + errors);
+		out.println("1 retrieves " + hash.get(1L));
+		out.println("2 retrieves " + hash.get(2L));
+
+		hash.free();
+		try {
+			hash.get(1L);
+		} catch (IllegalStateException e) {
+			out.println("After free(): " + e.getMessage());
+		}
+	}
+}
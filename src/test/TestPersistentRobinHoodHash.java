@@ -0,0 +1,102 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import static java.lang.System.out;
+
+import java.io.File;
+import java.io.IOException;
+
+import datastructures.PersistentRobinHoodHash;
+import util.Serializers;
+
+public class TestPersistentRobinHoodHash {
+	public static void main(String...strings) throws IOException {
+		final int COUNT = 1000000;
+		File file = File.createTempFile("robinhood", ".table");
+		File journal = new File(file.getPath() + ".journal");
+		file.delete();
+
+		PersistentRobinHoodHash<Long, Double> hash =
+				new PersistentRobinHoodHash<>(file, Serializers.LONG,
+				                              Serializers.DOUBLE);
+		for (long i = 0; i < COUNT; i++)
+			hash.put(i, i / 2.0);
+		hash.close();
+
+		long start = System.nanoTime();
+		hash = new PersistentRobinHoodHash<>(file, Serializers.LONG,
+		                                     Serializers.DOUBLE);
+		long elapsed = System.nanoTime() - start;
+		out.println("Reopened in " + elapsed / 1000 + "us\tItens: "
+		            + hash.size() + "\tLoad: " + hash.loadFactor());
+		int errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (hash.get(i) != i / 2.0)
+				errors++;
+		out.println("Errors: " + errors);
+
+		for (long i = 0; i < COUNT; i += 2)
+			hash.remove(i);
+		hash.close();
+		hash = new PersistentRobinHoodHash<>(file, Serializers.LONG,
+		                                     Serializers.DOUBLE);
+		errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (hash.containsKey(i) != (i % 2 == 1))
+				errors++;
+		out.println("Itens after removal: " + hash.size()
+		            + "\tErrors: " + errors);
+
+		// overwrite the remaining keys many times: after a clean close the
+		// journal holds only a record (20 bytes) for each element.
+		for (int round = 0; round < 8; round++)
+			for (long i = 1; i < COUNT; i += 2)
+				hash.put(i, i / 2.0 + round);
+		hash.close();
+		hash = new PersistentRobinHoodHash<>(file, Serializers.LONG,
+		                                     Serializers.DOUBLE);
+		errors = 0;
+		for (long i = 1; i < COUNT; i += 2)
+			if (hash.get(i) != i / 2.0 + 7)
+				errors++;
+		out.println("Journal records after overwrites: " + journal.length() / 20
+		            + "\tItens: " + hash.size() + "\tErrors: " + errors);
+
+		// simulate a crash: the table is not closed after the last updates.
+		for (long i = 0; i < COUNT; i += 2)
+			hash.put(i, -1.0);
+		PersistentRobinHoodHash<Long, Double> recovered =
+				new PersistentRobinHoodHash<>(file, Serializers.LONG,
+				                              Serializers.DOUBLE);
+		errors = 0;
+		int lost = 0;
+		for (long i = 0; i < COUNT; i++) {
+			Double value = recovered.get(i);
+			if (i % 2 == 1 && value != i / 2.0 + 7)
+				errors++;
+			else if (i % 2 == 0 && value == null)
+				lost++;
+			else if (i % 2 == 0 && value != -1.0)
+				errors++;
+		}
+		out.println("Recovered: " + recovered.size() + "\tLost: " + lost
+		            + "\tErrors: " + errors);
+		recovered.close();
+
+		try {
+			recovered.get(1L);
+		} catch (IllegalStateException e) {
+			out.println("After close(): " + e.getMessage());
+		}
+		file.delete();
+		journal.delete();
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.EmptyStackException;
+
+import algorithms.ExpressionEvaluator;
+import datastructures.DoubleStack;
+import datastructures.IntPairStack;
+import datastructures.IntStack;
+import datastructures.LongStack;
+
+public class TestPrimitiveStacks {
+	public static void main(String...strings) {
+		IntStack ints = new IntStack();
+		LongStack longs = new LongStack();
+		DoubleStack doubles = new DoubleStack();
+		for (int i = 0; i < 10; i++) {
+			ints.push(i);
+			longs.push(1L << (i + 31));
+			doubles.push(i / 2.0);
+		}
+		System.out.println("Sizes: " + ints.size() + " " + longs.size() + " "
+		                   + doubles.size() + "\tPeek: " + ints.peek());
+		while (!ints.isEmpty())
+			System.out.print(ints.pop() + " ");
+		System.out.println();
+		while (!longs.isEmpty())
+			System.out.print(longs.pop() + " ");
+		System.out.println();
+		while (!doubles.isEmpty())
+			System.out.print(doubles.pop() + " ");
+		System.out.println();
+
+		IntPairStack pairs = new IntPairStack();
+		pairs.push(-1, Integer.MAX_VALUE);
+		pairs.push(Integer.MIN_VALUE, -2);
+		while (!pairs.isEmpty()) {
+			long pair = pairs.pop();
+			System.out.print("(" + IntPairStack.first(pair) + ", "
+			                 + IntPairStack.second(pair) + ") ");
+		}
+		System.out.println();
+		try {
+			pairs.pop();
+		} catch (EmptyStackException e) {
+			System.out.println("Empty stack.");
+		}
+
+		System.out.println("2 * (3 + 4) - 10 / 4 = "
+		                   + ExpressionEvaluator.compute("2 * (3 + 4) - 10 / 4"));
+		System.out.println("(1 + 2) * 3 = "
+		                   + ExpressionEvaluator.compute("(1 + 2) * 3"));
+	}
+}
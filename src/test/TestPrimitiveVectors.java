@@ -0,0 +1,64 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import datastructures.DoubleVector;
+import datastructures.IntVector;
+import datastructures.LongVector;
+
+public class TestPrimitiveVectors {
+	public static void main(String...strings) {
+		IntVector ints = new IntVector();
+		for (int i = 0; i < 10; i++)
+			ints.append(i);
+		ints.remove(5);
+		ints.insert(0, -1);
+		ints.appendAll(new int[] { 100, 200, 300, 400 }, 1, 2);
+		ints.set(1, 42);
+		System.out.println(Arrays.toString(ints.toArray())
+		                   + "\tlast: " + ints.last());
+
+		PrimitiveIterator.OfInt iter = ints.iterator();
+		while (iter.hasNext())
+			if (iter.nextInt() % 2 == 0)
+				iter.remove();
+		for (PrimitiveIterator.OfInt it = ints.iterator(); it.hasNext(); )
+			System.out.print(it.nextInt() + " ");
+		System.out.println();
+
+		final int COUNT = 1000000;
+		long[] source = new long[COUNT];
+		for (int i = 0; i < COUNT; i++)
+			source[i] = i * 3L;
+		LongVector longs = new LongVector();
+		longs.appendAll(source, 0, COUNT);
+		longs.append(-1);
+		long sum = 0;
+		for (PrimitiveIterator.OfLong it = longs.iterator(); it.hasNext(); )
+			sum += it.nextLong();
+		System.out.println("LongVector size: " + longs.size()
+		                   + "\tsum: " + sum + "\tlast: " + longs.last());
+
+		DoubleVector doubles = new DoubleVector();
+		for (int i = 0; i < 5; i++)
+			doubles.append(i / 2.0);
+		for (double d : doubles)
+			System.out.print(d + " ");
+		System.out.println();
+		try {
+			doubles.get(5);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			System.out.println("get(5): " + e.getMessage());
+		}
+	}
+}
@@ -9,6 +9,8 @@
 
 package test;
 
+import java.util.function.Consumer;
+
 import datastructures.Queue;
 
 public class TestQueue {
@@ -19,6 +21,40 @@ public class TestQueue {
 			queue.push(i);
 		while (!queue.isEmpty())
 			System.out.print(queue.pop()+ " ");
+		System.out.println();
+
+		// wrap around the end of the array, and grow while wrapped.
+		queue = new Queue<>(4);
+		int next = 0, expected = 0, errors = 0;
+		for (int round = 0; round < 1000; round++) {
+			for (int i = 0; i < round % 7 + 1; i++)
+				queue.push(next++);
+			queue.pushAll(new Integer[] { next, next + 1, next + 2 });
+			next += 3;
+			for (int i = 0; i < round % 5 + 1 && !queue.isEmpty(); i++)
+				if (queue.pop() != expected++)
+					errors++;
+		}
+		System.out.println("Size: " + queue.size() + "\tExpected: "
+		                   + (next - expected) + "\tErrors: " + errors);
+
+		final int[] drained = { 0, 0 };
+		final int first = queue.peek();
+		Consumer<Integer> check = new Consumer<Integer>() {
+			@Override
+			public void accept(Integer value) {
+				if (value != first + drained[0])
+					drained[1]++;
+				drained[0]++;
+			}
+		};
+		queue.drainTo(check, 100);
+		System.out.println("Drained: " + drained[0] + "\tErrors: " + drained[1]
+		                   + "\tSize: " + queue.size());
+		queue.drainTo(check, Integer.MAX_VALUE);
+		System.out.println("Drained: " + drained[0] + "\tErrors: " + drained[1]
+		                   + "\tEmpty: " + queue.isEmpty()
+		                   + "\tPeek: " + queue.peek());
 	}
 
 }
@@ -0,0 +1,176 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import static java.lang.System.out;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+import datastructures.KeyValue;
+import datastructures.RobinHoodHash;
+
+public class TestRobinHoodHash {
+	public static void main(String...strings) {
+		String[] nomes = { "Rafael", "Ivonei", "Lossurdo", "Marcela", "Lucia",
+				"Gustavo", "Guilherme", "Marcia", "Fabio", "Elmario", "Luciano",
+				"Antonio", "Aline", "Marcelo" };
+		String[] testNames = {"Rafael", "Ivonei", "Guilherme", "Antonio", "Aline",
+				"Inexistente"};
+
+		RobinHoodHash<String, Integer> hash = new RobinHoodHash<>();
+		hash.collectStatistics(true);
+
+		for (int i = 0; i < nomes.length; i++) {
+			hash.put(nomes[i],i);
+			out.println("Itens: "+hash.size()+"\tLoad: "+hash.loadFactor());
+		}
+		for (String tst : testNames) {
+			out.println(tst + " retrieves " + hash.get(tst) );
+		}
+
+		Integer[] values = new Integer[testNames.length];
+		hash.collectStatistics(false);
+		hash.getAll(testNames, values);
+		out.println("getAll retrieves " + Arrays.toString(values));
+		hash.collectStatistics(true);
+
+		out.println("Removing 'Rafael' and 'Aline'.");
+		hash.remove("Rafael");
+		hash.remove("Aline");
+		for (String tst : testNames) {
+			out.println(tst + " retrieves " + hash.get(tst) );
+		}
+
+		out.println("Listing all elements with 'foreach':");
+		for (String tst : hash) {
+			out.println(tst + " retrieves " + hash.get(tst) );
+		}
+
+		out.println(hash.statistics());
+		out.println("Probes: " + Arrays.toString(hash.statistics().histogram()));
+		out.println("Distances: " + Arrays.toString(hash.distanceHistogram()));
+
+		testGetAll(200000);
+		testBulk(100000);
+		testIncremental(100000);
+	}
+
+	/*
+	 * Fill a table that resizes incrementally past several growths,
+	 * stopping right after one, remove some keys, and check every key.
+	 * The entries of a table of n slots take n / 8 puts and removes to
+	 * be moved, so the checks run while the move is in progress.
+	 */
+	private static void testIncremental(int count) {
+		RobinHoodHash<Integer, Integer> hash = new RobinHoodHash<>();
+		hash.incrementalResize(true);
+		int growths = 0, n = 0;
+		double load = 0;
+		while (true) {
+			hash.put(n, -n);
+			n++;
+			double current = hash.loadFactor();
+			if (current < load) {
+				growths++;
+				if (n >= count)
+					break;
+			}
+			load = current;
+		}
+		int removed = 0;
+		for (int i = 0; i < n; i += 97) {
+			hash.remove(i);
+			removed++;
+		}
+		int errors = hash.size() == n - removed ? 0 : 1;
+		for (int i = 0; i < n; i++) {
+			boolean stored = i % 97 != 0;
+			if (hash.containsKey(i) != stored)
+				errors++;
+			Integer value = hash.get(i);
+			if (stored ? value == null || value != -i : value != null)
+				errors++;
+		}
+		out.println("Incremental\tItens: " + hash.size() + "\tGrowths: "
+		            + growths + "\tErrors: " + errors);
+	}
+
+	/*
+	 * Insert keys with putAll(), into an empty table and into a partly
+	 * filled one, remove some of them, and check the keys, and the
+	 * key-value pairs, returned by parallel streams.
+	 */
+	private static void testBulk(final int count) {
+		RobinHoodHash<Integer, Integer> hash = new RobinHoodHash<>();
+		Integer[] keys = new Integer[count];
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = i;
+			values[i] = -i;
+		}
+		hash.putAll(keys, values);
+		for (int i = 0; i < count; i++) {
+			keys[i] = count + i;
+			values[i] = -(count + i);
+		}
+		hash.putAll(keys, values);
+		int errors = 0;
+		for (int i = 0; i < 2 * count; i++)
+			if (hash.get(i) == null || hash.get(i) != -i)
+				errors++;
+		out.println("putAll\tItens: " + hash.size() + "\tErrors: " + errors);
+
+		for (int i = 0; i < 2 * count; i += 3)
+			hash.remove(i);
+		long keyCount = StreamSupport.stream(hash.spliterator(), true)
+		                             .distinct().count();
+		long wrongKeys = StreamSupport.stream(hash.spliterator(), true)
+				.filter(new Predicate<Integer>() {
+					@Override
+					public boolean test(Integer key) {
+						return key % 3 == 0 || key < 0 || key >= 2 * count;
+					}
+				}).count();
+		long entryCount = StreamSupport.stream(hash.entrySpliterator(), true)
+		                               .count();
+		long wrongEntries = StreamSupport.stream(hash.entrySpliterator(), true)
+				.filter(new Predicate<KeyValue<Integer, Integer>>() {
+					@Override
+					public boolean test(KeyValue<Integer, Integer> entry) {
+						return entry.key % 3 == 0 || entry.value != -entry.key;
+					}
+				}).count();
+		out.println("Streams\tItens: " + hash.size() + "\tKeys: " + keyCount
+		            + "\tEntries: " + entryCount + "\tErrors: "
+		            + (wrongKeys + wrongEntries));
+	}
+
+	// check getAll() against get(), after removals, on a batch that is
+	// not a multiple of the group, with missing keys.
+	private static void testGetAll(int count) {
+		RobinHoodHash<Integer, Integer> hash = new RobinHoodHash<>();
+		for (int i = 0; i < count; i++)
+			hash.put(i, -i);
+		for (int i = 0; i < count; i += 3)
+			hash.remove(i);
+		Integer[] keys = new Integer[count + 7];
+		Integer[] values = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = i;
+		hash.getAll(keys, values);
+		int errors = 0;
+		for (int i = 0; i < keys.length; i++)
+			if (values[i] != hash.get(keys[i]))
+				errors++;
+		out.println("getAll\tItens: " + hash.size() + "\tErrors: " + errors);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import datastructures.IntIntRobinHoodMap;
+import datastructures.LongLongRobinHoodMap;
+import datastructures.LongObjectRobinHoodMap;
+
+public class TestRobinHoodMaps {
+	public static void main(String...strings) {
+		final int COUNT = 1000000;
+
+		LongLongRobinHoodMap longs = new LongLongRobinHoodMap();
+		for (long i = 0; i < COUNT; i++)
+			longs.put(i * 31, i);
+		longs.put(31, -1);
+		int errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (longs.get(i * 31, -2) != (i == 1 ? -1 : i))
+				errors++;
+		System.out.println("LongLong\tItens: " + longs.size()
+		                   + "\tLoad: " + longs.loadFactor()
+		                   + "\tErrors: " + errors
+		                   + "\tMissing 7: " + longs.get(7, -2));
+
+		long[] batch = new long[COUNT + 1];
+		long[] found = new long[COUNT + 1];
+		for (int i = 0; i <= COUNT; i++)
+			batch[i] = i * 31L;
+		longs.getAll(batch, found, -2);
+		errors = 0;
+		for (int i = 0; i <= COUNT; i++)
+			if (found[i] != longs.get(batch[i], -2))
+				errors++;
+		System.out.println("LongLong\tgetAll errors: " + errors);
+
+		for (long i = 0; i < COUNT; i += 2)
+			longs.remove(i * 31);
+		errors = 0;
+		for (long i = 0; i < COUNT; i++)
+			if (longs.containsKey(i * 31) != (i % 2 == 1))
+				errors++;
+		System.out.println("LongLong\tItens after removal: " + longs.size()
+		                   + "\tErrors: " + errors);
+
+		IntIntRobinHoodMap ints = new IntIntRobinHoodMap(COUNT);
+		for (int i = 0; i < COUNT; i++)
+			ints.put(-i, i);
+		errors = 0;
+		for (int i = 0; i < COUNT; i++)
+			if (ints.get(-i, -1) != i)
+				errors++;
+		System.out.println("IntInt\t\tItens: " + ints.size()
+		                   + "\tLoad: " + ints.loadFactor()
+		                   + "\tErrors: " + errors
+		                   + "\tContains 1: " + ints.containsKey(1));
+
+		int[] intBatch = new int[COUNT + 7];
+		int[] intFound = new int[intBatch.length];
+		for (int i = 0; i < intBatch.length; i++)
+			intBatch[i] = i % 2 == 0 ? -i : i;
+		ints.getAll(intBatch, intFound, -1);
+		errors = 0;
+		for (int i = 0; i < intBatch.length; i++)
+			if (intFound[i] != ints.get(intBatch[i], -1))
+				errors++;
+		System.out.println("IntInt\t\tgetAll errors: " + errors);
+
+		String[] nomes = { "Rafael", "Ivonei", "Lossurdo", "Marcela" };
+		LongObjectRobinHoodMap<String> names = new LongObjectRobinHoodMap<>();
+		for (int i = 0; i < nomes.length; i++)
+			names.put(i, nomes[i]);
+		for (int i = 0; i <= nomes.length; i++)
+			System.out.println(i + " retrieves " + names.get(i));
+		names.remove(0);
+		names.remove(2);
+		for (int i = 0; i <= nomes.length; i++)
+			System.out.println(i + " retrieves " + names.get(i));
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.function.Consumer;
+
+import datastructures.SpscArrayQueue;
+
+public class TestSpscArrayQueue {
+	public static void main(String...strings) throws InterruptedException {
+		final int COUNT = 2000000;
+		final SpscArrayQueue<Integer> queue = new SpscArrayQueue<>(1000);
+		System.out.println("Capacity: " + queue.capacity());
+
+		// the producer alternates single and batched offers.
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				Integer[] batch = new Integer[10];
+				int next = 0;
+				while (next < COUNT) {
+					if (next % 20 == 0) {
+						int n = Math.min(batch.length, COUNT - next);
+						for (int i = 0; i < n; i++)
+							batch[i] = next + i;
+						int offered = 0;
+						while (offered < n) {
+							offered += queue.offer(batch, offered, n - offered);
+							if (offered < n)
+								Thread.yield();
+						}
+						next += n;
+					} else if (queue.offer(next)) {
+						next++;
+					} else {
+						Thread.yield();
+					}
+				}
+			}
+		});
+		producer.start();
+
+		// the consumer alternates single polls and drains.
+		final int[] state = { 0, 0 };
+		Consumer<Integer> check = new Consumer<Integer>() {
+			@Override
+			public void accept(Integer value) {
+				if (value != state[0])
+					state[1]++;
+				state[0]++;
+			}
+		};
+		while (state[0] < COUNT) {
+			if (state[0] % 3 == 0) {
+				if (queue.drain(check, 64) == 0)
+					Thread.yield();
+			} else {
+				Integer value = queue.poll();
+				if (value == null)
+					Thread.yield();
+				else
+					check.accept(value);
+			}
+		}
+		producer.join();
+		System.out.println("Received: " + state[0] + "\tErrors: " + state[1]
+		                   + "\tEmpty: " + queue.isEmpty());
+	}
+}
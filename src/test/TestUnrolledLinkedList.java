@@ -0,0 +1,100 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import datastructures.LinkedList;
+import datastructures.UnrolledLinkedList;
+import interfaces.BidirectionalIterator;
+
+public class TestUnrolledLinkedList {
+	public static void main(String...strings) {
+		UnrolledLinkedList<Integer> lista = new UnrolledLinkedList<>(4);
+		BidirectionalIterator<Integer> iter;
+
+		lista.append(10);
+		iter = (BidirectionalIterator<Integer>)lista.iterator();
+		iter.next();
+		iter.remove();
+		if (lista.isEmpty())
+			System.out.println("Lista está vazia.");
+		else
+			System.out.println("Lista DEVERIA estar vazia.");
+
+		lista.append(4);
+		iter = (BidirectionalIterator<Integer>)lista.iterator();
+		iter.next();
+		iter.append(2);
+		iter.next();
+		iter.insert(3);
+		iter.append(1);
+		for (Integer n : lista)
+			System.out.print(n+" ");
+		System.out.println();
+
+		lista.sort(new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return o1-o2;
+			}
+		});
+		for (Integer n : lista)
+			System.out.print(n+" ");
+		System.out.println();
+
+		// the same random iterator operations, on a LinkedList.
+		Random random = new Random(42);
+		LinkedList<Integer> expected = new LinkedList<>();
+		lista = new UnrolledLinkedList<>(4);
+		for (int i = 0; i < 100; i++) {
+			expected.append(i);
+			lista.append(i);
+		}
+		BidirectionalIterator<Integer> check =
+				(BidirectionalIterator<Integer>)expected.iterator();
+		iter = (BidirectionalIterator<Integer>)lista.iterator();
+		int errors = 0;
+		for (int i = 0; i < 100000; i++) {
+			int op = random.nextInt(5);
+			boolean started = check.hasNext() ? check.hasPrevious() : true;
+			if (op == 0 && check.hasNext()) {
+				if (!check.next().equals(iter.next()))
+					errors++;
+			} else if (op == 1 && started && !expected.isEmpty()) {
+				if (!check.previous().equals(iter.previous()))
+					errors++;
+			} else if (op == 2 && started && !expected.isEmpty()) {
+				check.insert(i);
+				iter.insert(i);
+			} else if (op == 3 && started && !expected.isEmpty()) {
+				check.remove();
+				iter.remove();
+			} else if (!expected.isEmpty()) {
+				check.append(i);
+				iter.append(i);
+			}
+			if (check.hasNext() != iter.hasNext())
+				errors++;
+		}
+		java.util.Iterator<Integer> a = expected.iterator();
+		int size = 0;
+		for (Integer n : lista) {
+			if (!a.hasNext() || !n.equals(a.next()))
+				errors++;
+			size++;
+		}
+		if (a.hasNext())
+			errors++;
+		System.out.println("Size: " + lista.size() + "\tCounted: " + size
+		                   + "\tErrors: " + errors);
+	}
+}
@@ -34,5 +34,15 @@ public class TestVector {
 		iter.remove();
 		for (int i : vec)
 			System.out.print(i + " ");
+		System.out.println();
+
+		Vector<Integer> sized = new Vector<>(4);
+		sized.growthPolicy(1.5, 1000);
+		sized.ensureCapacity(100);
+		for (int i = 0; i < 1000; i++)
+			sized.append(i);
+		sized.trimToSize();
+		sized.append(1000);
+		System.out.println("Size: " + sized.size() + "\tLast: " + sized.last());
 	}
 }
@@ -0,0 +1,76 @@
+/*
+ * Data Structures and Algorithms.
+ * Copyright (C) 2016 Rafael Guterres Jeffman
+ *
+ * See the LICENSE file accompanying this source code, for
+ * licensing restrictions that might apply.
+ *
+ */
+
+package util;
+
+import java.nio.ByteBuffer;
+
+import interfaces.Serializer;
+
+/**
+ * This class provides serializers for common types.
+ */
+public final class Serializers {
+	/**
+	 * Serializes Long values in 8 bytes.
+	 */
+	public static final Serializer<Long> LONG = new Serializer<Long>() {
+		@Override
+		public int size() {
+			return 8;
+		}
+		@Override
+		public void write(Long value, ByteBuffer buffer, int offset) {
+			buffer.putLong(offset, value);
+		}
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+	};
+
+	/**
+	 * Serializes Integer values in 4 bytes.
+	 */
+	public static final Serializer<Integer> INTEGER = new Serializer<Integer>() {
+		@Override
+		public int size() {
+			return 4;
+		}
+		@Override
+		public void write(Integer value, ByteBuffer buffer, int offset) {
+			buffer.putInt(offset, value);
+		}
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+	};
+
+	/**
+	 * Serializes Double values in 8 bytes.
+	 */
+	public static final Serializer<Double> DOUBLE = new Serializer<Double>() {
+		@Override
+		public int size() {
+			return 8;
+		}
+		@Override
+		public void write(Double value, ByteBuffer buffer, int offset) {
+			buffer.putDouble(offset, value);
+		}
+		@Override
+		public Double read(ByteBuffer buffer, int offset) {
+			return buffer.getDouble(offset);
+		}
+	};
+
+	private Serializers() {
+	}
+}